@@ -0,0 +1,82 @@
+package com.ecci.taskmanager.data.database
+
+import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Pruebas de las migraciones de [AppDatabase] contra los esquemas exportados en `app/schemas`.
+ */
+@RunWith(AndroidJUnit4::class)
+class MigrationTest {
+
+    @get:Rule
+    val helper = MigrationTestHelper(
+        InstrumentationRegistry.getInstrumentation(),
+        AppDatabase::class.java
+    )
+
+    /** Fila de horario tal como queda después de migrar. */
+    private data class Schedule(val id: Long, val mask: Int, val startMinute: Int?, val endMinute: Int?, val deletedAt: Long?)
+
+    @Test
+    fun migrate9To10_convertsScheduleColumns() {
+        helper.createDatabase(TEST_DB, 9).use { db ->
+            db.execSQL(
+                "INSERT INTO tasks (id, title, priority, status, createdAt, hasReminder, isRecurring, " +
+                    "recurringDays, startTime, endTime, deletedAt) VALUES " +
+                    "(1, 'Clase', 2, 0, 0, 0, 1, '1,3,7', '08:30', '10:00', NULL), " +
+                    "(2, 'Formato inválido', 2, 0, 0, 0, 0, NULL, '8.30', '24:00', 123), " +
+                    "(3, 'Nocturna', 2, 0, 0, 0, 1, '2,10,3', '23:59', '00:00', NULL)"
+            )
+            db.execSQL(
+                "INSERT INTO tasks_archive (id, title, priority, status, createdAt, completedAt, hasReminder, " +
+                    "isRecurring, recurringDays, startTime, endTime) VALUES " +
+                    "(4, 'Archivada', 1, 1, 0, 0, 0, 1, '5', '23:00', '01:00')"
+            )
+        }
+
+        val db = helper.runMigrationsAndValidate(TEST_DB, 10, true, Migrations.MIGRATION_9_10)
+
+        assertEquals(
+            listOf(
+                // "1,3,7": lunes, miércoles y domingo (bits 0, 2 y 6)
+                Schedule(1, 0b1000101, 510, 600, null),
+                // Horas que no son "HH:mm" válidas quedan en NULL
+                Schedule(2, 0, null, null, 123),
+                // "10" no es un día: no activa el bit del 1
+                Schedule(3, 0b0000110, 1439, 0, null)
+            ),
+            readSchedules(db, "tasks")
+        )
+        assertEquals(listOf(Schedule(4, 0b0010000, 1380, 60, null)), readSchedules(db, "tasks_archive"))
+        db.close()
+    }
+
+    private fun readSchedules(db: SupportSQLiteDatabase, table: String): List<Schedule> {
+        return db.query("SELECT id, recurringMask, startMinute, endMinute, deletedAt FROM $table ORDER BY id").use { cursor ->
+            buildList {
+                while (cursor.moveToNext()) {
+                    add(
+                        Schedule(
+                            id = cursor.getLong(0),
+                            mask = cursor.getInt(1),
+                            startMinute = if (cursor.isNull(2)) null else cursor.getInt(2),
+                            endMinute = if (cursor.isNull(3)) null else cursor.getInt(3),
+                            deletedAt = if (cursor.isNull(4)) null else cursor.getLong(4)
+                        )
+                    )
+                }
+            }
+        }
+    }
+
+    companion object {
+        private const val TEST_DB = "migration-test"
+    }
+}
@@ -1,12 +1,39 @@
 package com.ecci.taskmanager
 
 import android.app.Application
+import androidx.hilt.work.HiltWorkerFactory
+import androidx.lifecycle.DefaultLifecycleObserver
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.ProcessLifecycleOwner
+import androidx.lifecycle.lifecycleScope
+import androidx.work.Configuration
+import com.ecci.taskmanager.data.database.DatabaseExecutors
+import com.ecci.taskmanager.data.repository.TaskRepository
+import com.ecci.taskmanager.notifications.ReminderScheduler
+import com.ecci.taskmanager.work.OverdueTasksWorker
+import com.ecci.taskmanager.work.TaskArchiveWorker
+import com.ecci.taskmanager.work.TaskPurgeWorker
 import dagger.hilt.android.HiltAndroidApp
+import kotlinx.coroutines.launch
 import timber.log.Timber
+import javax.inject.Inject
 
 @HiltAndroidApp
-class TaskManagerApplication : Application() {
+class TaskManagerApplication : Application(), Configuration.Provider {
 
+    @Inject
+    lateinit var workerFactory: HiltWorkerFactory
+
+    @Inject
+    lateinit var taskRepository: TaskRepository
+
+    @Inject
+    lateinit var reminderScheduler: ReminderScheduler
+
+    override val workManagerConfiguration: Configuration
+        get() = Configuration.Builder()
+            .setWorkerFactory(workerFactory)
+            .build()
 
     override fun onCreate() {
 
@@ -16,5 +43,28 @@ class TaskManagerApplication : Application() {
         Timber.plant(Timber.DebugTree())
 
         Timber.d("TaskManager Application iniciada")
+
+        // Mantener el estado OVERDUE: periódicamente y cada vez que la app pasa a primer plano
+        OverdueTasksWorker.schedule(this)
+        ProcessLifecycleOwner.get().lifecycle.addObserver(object : DefaultLifecycleObserver {
+            override fun onStart(owner: LifecycleOwner) {
+                owner.lifecycleScope.launch {
+                    taskRepository.updateOverdueTasks()
+                }
+            }
+
+            override fun onStop(owner: LifecycleOwner) {
+                DatabaseExecutors.metrics().forEach { lane -> Timber.d("Base de datos: $lane") }
+            }
+        })
+
+        // Mover al archivo las tareas completadas antiguas
+        TaskArchiveWorker.schedule(this)
+
+        // Purgar las tareas eliminadas (lápidas) antiguas
+        TaskPurgeWorker.schedule(this)
+
+        // Una sola alarma para el próximo recordatorio; se recalcula con cada cambio en las tareas
+        reminderScheduler.start()
     }
-}
\ No newline at end of file
+}
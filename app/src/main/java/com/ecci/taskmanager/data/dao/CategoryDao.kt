@@ -1,8 +1,9 @@
 package com.ecci.taskmanager.data.dao
 
-import androidx.lifecycle.LiveData
 import androidx.room.*
 import com.ecci.taskmanager.data.model.Category
+import com.ecci.taskmanager.data.model.CategoryWithCount
+import kotlinx.coroutines.flow.Flow
 
 /**
  * Interfaz que define las operaciones de acceso a datos (DAO)
@@ -22,32 +23,35 @@ interface CategoryDao {
 
     /**
      * Inserta una nueva categoría en la base de datos.
-     * Si ya existe una categoría con el mismo ID, la reemplaza.
+     * Si ya existe una categoría con el mismo ID, la actualiza.
+     *
+     * Se usa [Upsert] en lugar de `REPLACE`, que borraría la fila y dejaría
+     * sin categoría (SET NULL) a todas sus tareas.
      *
      * @param category Objeto [Category] que se desea insertar.
-     * @return El ID (tipo [Long]) de la categoría insertada.
+     * @return El ID (tipo [Long]) de la categoría insertada, o `-1` si se actualizó.
      */
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    @Upsert
     suspend fun insert(category: Category): Long
 
     /**
      * Inserta una lista de categorías en la base de datos.
-     * Si alguna categoría ya existe, será reemplazada.
+     * Si alguna categoría ya existe, será actualizada.
      *
      * @param categories Lista de objetos [Category] a insertar.
      */
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    @Upsert
     suspend fun insertAll(categories: List<Category>)
 
     /**
      * Obtiene todas las categorías almacenadas en la base de datos,
      * ordenadas alfabéticamente por nombre.
      *
-     * @return Un objeto [LiveData] que contiene una lista de categorías.
+     * @return Un objeto [Flow] que contiene una lista de categorías.
      * La lista se actualiza automáticamente cuando cambian los datos.
      */
     @Query("SELECT * FROM categories ORDER BY name ASC")
-    fun getAllCategories(): LiveData<List<Category>>
+    fun getAllCategories(): Flow<List<Category>>
 
     /**
      * Busca una categoría específica según su identificador único.
@@ -63,28 +67,28 @@ interface CategoryDao {
      * Obtiene todas las categorías predefinidas (isPredefined = 1),
      * ordenadas alfabéticamente.
      *
-     * @return Un objeto [LiveData] con la lista de categorías predefinidas.
+     * @return Un objeto [Flow] con la lista de categorías predefinidas.
      */
     @Query("SELECT * FROM categories WHERE isPredefined = 1 ORDER BY name ASC")
-    fun getPredefinedCategories(): LiveData<List<Category>>
+    fun getPredefinedCategories(): Flow<List<Category>>
 
     /**
      * Obtiene todas las categorías personalizadas creadas por el usuario
      * (isPredefined = 0), ordenadas alfabéticamente.
      *
-     * @return Un objeto [LiveData] con la lista de categorías personalizadas.
+     * @return Un objeto [Flow] con la lista de categorías personalizadas.
      */
     @Query("SELECT * FROM categories WHERE isPredefined = 0 ORDER BY name ASC")
-    fun getCustomCategories(): LiveData<List<Category>>
+    fun getCustomCategories(): Flow<List<Category>>
 
     /**
      * Busca categorías cuyo nombre contenga una cadena de texto específica.
      *
      * @param searchQuery Cadena que se desea buscar dentro de los nombres.
-     * @return Un objeto [LiveData] con la lista de categorías coincidentes.
+     * @return Un objeto [Flow] con la lista de categorías coincidentes.
      */
     @Query("SELECT * FROM categories WHERE name LIKE '%' || :searchQuery || '%'")
-    fun searchCategories(searchQuery: String): LiveData<List<Category>>
+    fun searchCategories(searchQuery: String): Flow<List<Category>>
 
     /**
      * Actualiza los datos de una categoría existente en la base de datos.
@@ -113,9 +117,29 @@ interface CategoryDao {
     /**
      * Obtiene la cantidad de tareas asociadas a una categoría específica.
      *
+     * El valor proviene de `task_counters`, mantenida por triggers.
+     *
      * @param categoryId Identificador de la categoría a consultar.
-     * @return Un objeto [LiveData] que contiene el número de tareas relacionadas.
+     * @return Un objeto [Flow] que contiene el número de tareas relacionadas.
+     */
+    @Query("SELECT COALESCE((SELECT count FROM task_counters WHERE scope = 'category' AND scopeId = :categoryId), 0)")
+    fun getTaskCountByCategory(categoryId: Long): Flow<Int>
+
+    /**
+     * Obtiene todas las categorías con su número de tareas en una sola consulta.
+     *
+     * Cada conteo se lee de `task_counters` mediante su clave primaria, por lo que
+     * el costo depende del número de categorías y no del de tareas. Primero se
+     * listan las categorías predefinidas y luego las personalizadas, por nombre.
+     *
+     * @return Un objeto [Flow] con las categorías y sus conteos.
      */
-    @Query("SELECT COUNT(*) FROM tasks WHERE categoryId = :categoryId")
-    fun getTaskCountByCategory(categoryId: Long): LiveData<Int>
+    @Query("""
+        SELECT categories.*, COALESCE(task_counters.count, 0) AS taskCount
+        FROM categories
+        LEFT JOIN task_counters
+            ON task_counters.scope = 'category' AND task_counters.scopeId = categories.id
+        ORDER BY categories.isPredefined DESC, categories.name ASC
+    """)
+    fun getCategoriesWithTaskCount(): Flow<List<CategoryWithCount>>
 }
@@ -1,10 +1,10 @@
 package com.ecci.taskmanager.data.dao
 
-import androidx.lifecycle.LiveData
 import androidx.room.*
 import com.ecci.taskmanager.data.model.Tag
 import com.ecci.taskmanager.data.model.TaskTagCrossRef
 import com.ecci.taskmanager.data.model.Task
+import kotlinx.coroutines.flow.Flow
 
 /**
  * Interfaz que define las operaciones de acceso a datos (DAO)
@@ -23,31 +23,34 @@ interface TagDao {
 
     /**
      * Inserta una nueva etiqueta en la base de datos.
-     * Si ya existe una con el mismo ID, se reemplaza.
+     * Si ya existe una con el mismo ID, se actualiza.
+     *
+     * Se usa [Upsert] en lugar de `REPLACE`, que borraría la fila y con ella
+     * (en cascada) los vínculos de la etiqueta con sus tareas.
      *
      * @param tag Objeto [Tag] que se desea insertar.
-     * @return El identificador único ([Long]) generado o reemplazado.
+     * @return El identificador único ([Long]) generado, o `-1` si se actualizó.
      */
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    @Upsert
     suspend fun insertTag(tag: Tag): Long
 
     /**
      * Inserta una lista de etiquetas en la base de datos.
-     * Si alguna ya existe, se reemplaza.
+     * Si alguna ya existe, se actualiza.
      *
      * @param tags Lista de objetos [Tag] que se desean insertar.
      */
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    @Upsert
     suspend fun insertTags(tags: List<Tag>)
 
     /**
      * Obtiene todas las etiquetas registradas en la base de datos,
      * ordenadas alfabéticamente por nombre.
      *
-     * @return Un objeto [LiveData] con la lista de etiquetas actualizadas automáticamente.
+     * @return Un objeto [Flow] con la lista de etiquetas actualizadas automáticamente.
      */
     @Query("SELECT * FROM tags ORDER BY name ASC")
-    fun getAllTags(): LiveData<List<Tag>>
+    fun getAllTags(): Flow<List<Tag>>
 
     /**
      * Obtiene una etiqueta específica según su identificador.
@@ -107,7 +110,7 @@ interface TagDao {
      * para identificar las etiquetas vinculadas con el ID de la tarea.
      *
      * @param taskId Identificador de la tarea.
-     * @return Un objeto [LiveData] con la lista de etiquetas relacionadas.
+     * @return Un objeto [Flow] con la lista de etiquetas relacionadas.
      */
     @Query("""
         SELECT tags.* FROM tags
@@ -115,7 +118,7 @@ interface TagDao {
         WHERE task_tag_cross_ref.taskId = :taskId
         ORDER BY tags.name ASC
     """)
-    fun getTagsForTask(taskId: Long): LiveData<List<Tag>>
+    fun getTagsForTask(taskId: Long): Flow<List<Tag>>
 
     /**
      * Obtiene todas las tareas asociadas a una etiqueta específica.
@@ -124,15 +127,16 @@ interface TagDao {
      * para identificar las tareas vinculadas al ID de la etiqueta.
      *
      * @param tagId Identificador de la etiqueta.
-     * @return Un objeto [LiveData] con la lista de tareas asociadas.
+     * @return Un objeto [Flow] con la lista de tareas asociadas.
      */
     @Query("""
         SELECT tasks.* FROM tasks
         INNER JOIN task_tag_cross_ref ON tasks.id = task_tag_cross_ref.taskId
         WHERE task_tag_cross_ref.tagId = :tagId
+        AND tasks.deletedAt IS NULL
         ORDER BY tasks.createdAt DESC
     """)
-    fun getTasksWithTag(tagId: Long): LiveData<List<Task>>
+    fun getTasksWithTag(tagId: Long): Flow<List<Task>>
 
     /**
      * Elimina todas las relaciones de etiquetas asociadas a una tarea específica.
@@ -143,12 +147,68 @@ interface TagDao {
     @Query("DELETE FROM task_tag_cross_ref WHERE taskId = :taskId")
     suspend fun deleteAllTagsFromTask(taskId: Long)
 
+    /**
+     * Obtiene los IDs de las etiquetas asociadas a una tarea.
+     *
+     * @param taskId Identificador de la tarea.
+     * @return Lista con los IDs de las etiquetas vinculadas.
+     */
+    @Query("SELECT tagId FROM task_tag_cross_ref WHERE taskId = :taskId")
+    suspend fun getTagIdsForTask(taskId: Long): List<Long>
+
+    /**
+     * Inserta varias relaciones tarea-etiqueta con una sola sentencia preparada.
+     * Las relaciones que ya existen se ignoran.
+     *
+     * @param crossRefs Relaciones a insertar.
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertTaskTagCrossRefs(crossRefs: List<TaskTagCrossRef>)
+
+    /**
+     * Elimina los vínculos de una tarea con las etiquetas indicadas.
+     *
+     * @param taskId Identificador de la tarea.
+     * @param tagIds IDs de las etiquetas a desvincular.
+     */
+    @Query("DELETE FROM task_tag_cross_ref WHERE taskId = :taskId AND tagId IN (:tagIds)")
+    suspend fun deleteTagsFromTask(taskId: Long, tagIds: List<Long>)
+
+    /**
+     * Deja asociadas a la tarea exactamente las etiquetas indicadas.
+     *
+     * Compara las etiquetas actuales con las nuevas y solo escribe la diferencia:
+     * un `DELETE ... IN` para las que sobran y una inserción por lotes para las que
+     * faltan. Todo ocurre en una transacción, por lo que los observadores ven un
+     * único cambio y la tarea nunca queda momentáneamente sin etiquetas.
+     *
+     * @param taskId Identificador de la tarea.
+     * @param tagIds IDs de las etiquetas que deben quedar asociadas.
+     */
+    @Transaction
+    suspend fun replaceTaskTags(taskId: Long, tagIds: Collection<Long>) {
+        val current = getTagIdsForTask(taskId).toSet()
+        val target = tagIds.toSet()
+
+        val removed = current - target
+        if (removed.isNotEmpty()) {
+            deleteTagsFromTask(taskId, removed.toList())
+        }
+
+        val added = target - current
+        if (added.isNotEmpty()) {
+            insertTaskTagCrossRefs(added.map { tagId -> TaskTagCrossRef(taskId, tagId) })
+        }
+    }
+
     /**
      * Obtiene el número de tareas asociadas a una etiqueta específica.
      *
+     * El valor proviene de `task_counters`, mantenida por triggers.
+     *
      * @param tagId Identificador de la etiqueta.
-     * @return Un objeto [LiveData] con el conteo de tareas relacionadas.
+     * @return Un objeto [Flow] con el conteo de tareas relacionadas.
      */
-    @Query("SELECT COUNT(*) FROM task_tag_cross_ref WHERE tagId = :tagId")
-    fun getTaskCountForTag(tagId: Long): LiveData<Int>
+    @Query("SELECT COALESCE((SELECT count FROM task_counters WHERE scope = 'tag' AND scopeId = :tagId), 0)")
+    fun getTaskCountForTag(tagId: Long): Flow<Int>
 }
@@ -10,11 +10,20 @@
 
 package com.ecci.taskmanager.data.dao
 
-import androidx.lifecycle.LiveData
+import androidx.paging.PagingSource
 import androidx.room.*
+import androidx.sqlite.db.SupportSQLiteQuery
+import com.ecci.taskmanager.data.model.CompletedTaskItem
 import com.ecci.taskmanager.data.model.Task
+import com.ecci.taskmanager.data.model.TaskArchive
+import com.ecci.taskmanager.data.model.TaskArchiveTagCrossRef
+import com.ecci.taskmanager.data.model.TaskSearchResult
+import com.ecci.taskmanager.data.model.TaskStatsSnapshot
 import com.ecci.taskmanager.data.model.TaskStatus
+import com.ecci.taskmanager.data.model.TaskTagCrossRef
+import com.ecci.taskmanager.data.model.TaskWithTags
 import com.ecci.taskmanager.data.model.Priority
+import kotlinx.coroutines.flow.Flow
 
 /**
  * Interfaz que define las operaciones de acceso y manipulación de datos
@@ -26,35 +35,46 @@ import com.ecci.taskmanager.data.model.Priority
  *
  * Las tareas almacenan información como su estado ([TaskStatus]),
  * prioridad ([Priority]), fechas de creación y vencimiento, y recordatorios.
+ *
+ * El estado y la prioridad se guardan como enteros (ver [TaskStatus.code] y
+ * [Priority.value]); en SQL: 0 = PENDING, 1 = COMPLETED, 2 = OVERDUE y
+ * 1 = LOW, 2 = MEDIUM, 3 = HIGH.
+ *
+ * Las tareas eliminadas por el usuario se marcan con `deletedAt` (lápida) y
+ * se excluyen de todas las consultas de lectura; [purgeDeletedChunk] las
+ * elimina físicamente más tarde, por bloques.
  */
 @Dao
 interface TaskDao {
 
     /**
      * Inserta una nueva tarea en la base de datos.
-     * Si ya existe una con el mismo ID, será reemplazada.
+     * Si ya existe una con el mismo ID, se actualiza.
+     *
+     * Se usa [Upsert] en lugar de `REPLACE`: un reemplazo borra la fila y el
+     * borrado eliminaría en cascada las etiquetas de la tarea.
      *
      * @param task Objeto [Task] que se desea insertar.
-     * @return El identificador único generado o reemplazado.
+     * @return El identificador generado, o `-1` si la tarea ya existía y se actualizó.
      */
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    @Upsert
     suspend fun insert(task: Task): Long
 
     /**
-     * Inserta una lista de tareas en la base de datos.
+     * Inserta una lista de tareas en la base de datos (las existentes se actualizan).
      *
      * @param tasks Lista de objetos [Task] que se desean insertar.
      */
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    @Upsert
     suspend fun insertAll(tasks: List<Task>)
 
     /**
      * Obtiene todas las tareas almacenadas, ordenadas por fecha de creación descendente.
      *
-     * @return [LiveData] que contiene la lista de todas las tareas.
+     * @return [Flow] que contiene la lista de todas las tareas.
      */
-    @Query("SELECT * FROM tasks ORDER BY createdAt DESC")
-    fun getAllTasks(): LiveData<List<Task>>
+    @Query("SELECT * FROM tasks WHERE deletedAt IS NULL ORDER BY createdAt DESC")
+    fun getAllTasks(): Flow<List<Task>>
 
     /**
      * Busca una tarea específica por su ID.
@@ -69,104 +89,269 @@ interface TaskDao {
      * Obtiene una tarea específica por su ID, con actualización en tiempo real.
      *
      * @param taskId Identificador de la tarea.
-     * @return [LiveData] que contiene la tarea o `null` si no existe.
+     * @return [Flow] que contiene la tarea o `null` si no existe.
      */
-    @Query("SELECT * FROM tasks WHERE id = :taskId")
-    fun getTaskByIdLive(taskId: Long): LiveData<Task?>
+    @Query("SELECT * FROM tasks WHERE id = :taskId AND deletedAt IS NULL")
+    fun getTaskByIdLive(taskId: Long): Flow<Task?>
 
     /**
      * Obtiene todas las tareas filtradas por su estado.
      *
      * @param status Estado de la tarea (PENDING, COMPLETED, etc.).
-     * @return [LiveData] con la lista de tareas filtradas.
+     * @return [Flow] con la lista de tareas filtradas.
      */
-    @Query("SELECT * FROM tasks WHERE status = :status ORDER BY createdAt DESC")
-    fun getTasksByStatus(status: TaskStatus): LiveData<List<Task>>
+    @Query("SELECT * FROM tasks WHERE status = :status AND deletedAt IS NULL ORDER BY createdAt DESC")
+    fun getTasksByStatus(status: TaskStatus): Flow<List<Task>>
 
     /**
      * Obtiene las tareas pertenecientes a una categoría específica.
      *
      * @param categoryId ID de la categoría.
-     * @return [LiveData] con las tareas filtradas por categoría.
+     * @return [Flow] con las tareas filtradas por categoría.
      */
-    @Query("SELECT * FROM tasks WHERE categoryId = :categoryId ORDER BY createdAt DESC")
-    fun getTasksByCategory(categoryId: Long): LiveData<List<Task>>
+    @Query("SELECT * FROM tasks WHERE categoryId = :categoryId AND deletedAt IS NULL ORDER BY createdAt DESC")
+    fun getTasksByCategory(categoryId: Long): Flow<List<Task>>
 
     /**
      * Obtiene las tareas según su nivel de prioridad.
      *
      * @param priority Nivel de prioridad (ALTA, MEDIA, BAJA).
-     * @return [LiveData] con las tareas correspondientes.
+     * @return [Flow] con las tareas correspondientes.
      */
-    @Query("SELECT * FROM tasks WHERE priority = :priority ORDER BY createdAt DESC")
-    fun getTasksByPriority(priority: Priority): LiveData<List<Task>>
+    @Query("SELECT * FROM tasks WHERE priority = :priority AND deletedAt IS NULL ORDER BY createdAt DESC")
+    fun getTasksByPriority(priority: Priority): Flow<List<Task>>
 
     /**
-     * Busca tareas cuyo título o descripción contengan una palabra clave.
+     * Busca tareas mediante el índice de texto completo `tasks_fts`.
+     *
+     * La consulta debe estar en sintaxis `MATCH` (ver [com.ecci.taskmanager.data.database.FtsQuery]).
+     * Cada resultado incluye su `matchinfo` para poder ordenarlo por relevancia.
      *
-     * @param searchQuery Texto de búsqueda.
-     * @return [LiveData] con las tareas que coinciden con la búsqueda.
+     * @param matchQuery Consulta de texto completo (por ejemplo, `reu* proy*`).
+     * @return [Flow] con las tareas que coinciden con la búsqueda.
      */
     @Query("""
-        SELECT * FROM tasks 
-        WHERE title LIKE '%' || :searchQuery || '%' 
-        OR description LIKE '%' || :searchQuery || '%'
-        ORDER BY createdAt DESC
+        SELECT tasks.*, matchinfo(tasks_fts, 'pcnalx') AS matchInfo
+        FROM tasks
+        JOIN tasks_fts ON tasks.id = tasks_fts.rowid
+        WHERE tasks_fts MATCH :matchQuery
+        AND tasks.deletedAt IS NULL
     """)
-    fun searchTasks(searchQuery: String): LiveData<List<Task>>
+    fun searchTasks(matchQuery: String): Flow<List<TaskSearchResult>>
 
     /**
      * Obtiene las tareas pendientes ordenadas por fecha de vencimiento
      * (más próximas primero) y prioridad descendente.
      *
-     * @return [LiveData] con la lista de tareas pendientes.
+     * @return [Flow] con la lista de tareas pendientes.
      */
-    @Query("SELECT * FROM tasks WHERE status = 'PENDING' ORDER BY dueDate ASC, priority DESC")
-    fun getPendingTasks(): LiveData<List<Task>>
+    @Query("SELECT * FROM tasks WHERE status = 0 AND deletedAt IS NULL ORDER BY dueDate ASC, priority DESC")
+    fun getPendingTasks(): Flow<List<Task>>
 
     /**
      * Obtiene las tareas completadas, ordenadas por fecha de finalización.
      *
-     * @return [LiveData] con la lista de tareas completadas.
+     * Incluye las tareas archivadas (`tasks_archive`).
+     *
+     * @return [Flow] con la lista de tareas completadas.
      */
-    @Query("SELECT * FROM tasks WHERE status = 'COMPLETED' ORDER BY completedAt DESC")
-    fun getCompletedTasks(): LiveData<List<Task>>
+    @Query("""
+        SELECT id, title, description, dueDate, priority, status, categoryId,
+            createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+            recurringMask, startMinute, endMinute, deletedAt
+        FROM tasks WHERE status = 1 AND deletedAt IS NULL
+        UNION ALL
+        SELECT id, title, description, dueDate, priority, status, categoryId,
+            createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+            recurringMask, startMinute, endMinute, deletedAt
+        FROM tasks_archive
+        ORDER BY completedAt DESC
+    """)
+    fun getCompletedTasks(): Flow<List<Task>>
 
     /**
      * Obtiene las tareas vencidas que aún no se han completado.
      *
+     * Se filtra con `IN` en lugar de `!=` para que SQLite pueda recorrer
+     * el índice (status, dueDate, priority) en lugar de toda la tabla.
+     *
      * @param currentDate Fecha actual en milisegundos.
-     * @return [LiveData] con la lista de tareas vencidas.
+     * @return [Flow] con la lista de tareas vencidas.
      */
     @Query("""
         SELECT * FROM tasks 
-        WHERE status != 'COMPLETED' 
+        WHERE status IN (0, 2) 
         AND dueDate < :currentDate 
+        AND deletedAt IS NULL
         ORDER BY dueDate ASC
     """)
-    fun getOverdueTasks(currentDate: Long = System.currentTimeMillis()): LiveData<List<Task>>
+    fun getOverdueTasks(currentDate: Long = System.currentTimeMillis()): Flow<List<Task>>
 
     /**
      * Obtiene las tareas programadas para el día actual.
      *
-     * @param today Fecha actual en milisegundos.
-     * @return [LiveData] con las tareas del día.
+     * Los límites del día local se reciben ya calculados, de modo que el filtro
+     * es un rango sobre `dueDate` que recorre el índice (status, dueDate, priority)
+     * sin evaluar funciones de fecha en cada fila.
+     *
+     * @param dayStart Inicio del día local en milisegundos.
+     * @param dayEnd Fin del día local en milisegundos (inclusive).
+     * @return [Flow] con las tareas del día.
      */
     @Query("""
         SELECT * FROM tasks 
-        WHERE date(dueDate/1000, 'unixepoch') = date(:today/1000, 'unixepoch')
-        AND status != 'COMPLETED'
+        WHERE status IN (0, 2)
+        AND dueDate BETWEEN :dayStart AND :dayEnd
+        AND deletedAt IS NULL
         ORDER BY priority DESC
     """)
-    fun getTodayTasks(today: Long = System.currentTimeMillis()): LiveData<List<Task>>
+    fun getTodayTasks(dayStart: Long, dayEnd: Long): Flow<List<Task>>
+
+    /**
+     * Obtiene las tareas no completadas que vencen dentro de un intervalo
+     * (por ejemplo, mañana o lo que resta de la semana).
+     *
+     * @param rangeStart Inicio del intervalo en milisegundos.
+     * @param rangeEnd Fin del intervalo en milisegundos (inclusive).
+     * @return [Flow] con las tareas ordenadas por vencimiento y prioridad.
+     */
+    @Query("""
+        SELECT * FROM tasks 
+        WHERE status IN (0, 2)
+        AND dueDate BETWEEN :rangeStart AND :rangeEnd
+        AND deletedAt IS NULL
+        ORDER BY dueDate ASC, priority DESC
+    """)
+    fun getTasksDueInRange(rangeStart: Long, rangeEnd: Long): Flow<List<Task>>
 
     /**
      * Obtiene las tareas con recordatorios activos y no completadas.
      *
-     * @return [LiveData] con las tareas que tienen recordatorio.
+     * @return [Flow] con las tareas que tienen recordatorio.
+     */
+    @Query("SELECT * FROM tasks WHERE hasReminder = 1 AND status IN (0, 2) AND deletedAt IS NULL ORDER BY reminderTime ASC")
+    fun getTasksWithReminder(): Flow<List<Task>>
+
+    /**
+     * Obtiene la hora del próximo recordatorio pendiente posterior a [after].
+     *
+     * Recorre el índice (hasReminder, reminderTime) desde [after] y se detiene en
+     * la primera tarea no completada ni eliminada.
+     *
+     * @param after Instante en milisegundos (exclusivo).
+     * @return Hora del recordatorio en milisegundos, o `null` si no hay ninguno.
+     */
+    @Query("""
+        SELECT reminderTime FROM tasks
+        WHERE hasReminder = 1 AND reminderTime > :after
+        AND status IN (0, 2)
+        AND deletedAt IS NULL
+        ORDER BY reminderTime ASC
+        LIMIT 1
+    """)
+    suspend fun getNextReminderTime(after: Long): Long?
+
+    /**
+     * Obtiene los IDs de todas las tareas, incluidas las eliminadas.
+     *
+     * @return Lista de IDs.
+     */
+    @Query("SELECT id FROM tasks")
+    suspend fun getAllTaskIds(): List<Long>
+
+    /**
+     * Obtiene las tareas pendientes cuyo recordatorio vence en el intervalo
+     * (`from`, `to`], en orden de hora.
+     *
+     * @param from Inicio del intervalo en milisegundos (exclusivo).
+     * @param to Fin del intervalo en milisegundos (inclusivo).
+     * @return Lista de tareas con recordatorio vencido.
+     */
+    @Query("""
+        SELECT * FROM tasks
+        WHERE hasReminder = 1 AND reminderTime > :from AND reminderTime <= :to
+        AND status IN (0, 2)
+        AND deletedAt IS NULL
+        ORDER BY reminderTime ASC
+    """)
+    suspend fun getDueReminders(from: Long, to: Long): List<Task>
+
+    /**
+     * Obtiene las tareas recurrentes activas, para expandir sus ocurrencias
+     * (ver [com.ecci.taskmanager.data.repository.RecurrenceSchedule]).
+     *
+     * `recurringMask > 0` recorre solo el tramo de tareas recurrentes del índice
+     * (recurringMask, startMinute, endMinute).
+     *
+     * @return [Flow] con las tareas que se repiten al menos un día.
      */
-    @Query("SELECT * FROM tasks WHERE hasReminder = 1 AND status != 'COMPLETED'")
-    fun getTasksWithReminder(): LiveData<List<Task>>
+    @Query("SELECT * FROM tasks WHERE recurringMask > 0 AND deletedAt IS NULL")
+    fun getRecurringTasks(): Flow<List<Task>>
+
+    /**
+     * Obtiene las tareas que se repiten un día de la semana, ordenadas por hora de inicio.
+     *
+     * @param dayBit Bit del día ISO (ver [com.ecci.taskmanager.data.model.RecurrenceRule.dayBit]).
+     * @return [Flow] con las tareas programadas ese día.
+     */
+    @Query("""
+        SELECT * FROM tasks
+        WHERE recurringMask > 0 AND (recurringMask & :dayBit) != 0
+        AND deletedAt IS NULL
+        ORDER BY startMinute ASC
+    """)
+    fun getTasksScheduledOn(dayBit: Int): Flow<List<Task>>
+
+    /**
+     * Obtiene las tareas cuyo horario se cruza con un intervalo de un día de la semana
+     * (por ejemplo, "martes entre 9 y 11").
+     *
+     * El filtro completo se evalúa en SQLite sobre el índice
+     * (recurringMask, startMinute, endMinute), sin cargar las demás tareas.
+     *
+     * @param dayBit Bit del día ISO.
+     * @param fromMinute Inicio del intervalo en minutos desde la medianoche.
+     * @param toMinute Fin del intervalo en minutos desde la medianoche (exclusivo).
+     * @return [Flow] con las tareas que se cruzan con el intervalo.
+     */
+    @Query("""
+        SELECT * FROM tasks
+        WHERE recurringMask > 0 AND (recurringMask & :dayBit) != 0
+        AND startMinute < :toMinute AND endMinute > :fromMinute
+        AND deletedAt IS NULL
+        ORDER BY startMinute ASC
+    """)
+    fun getTasksScheduledBetween(dayBit: Int, fromMinute: Int, toMinute: Int): Flow<List<Task>>
+
+    // ------------------------------
+    // Variantes paginadas (Paging 3)
+    // ------------------------------
+    // Devuelven la proyección [TaskListItem]: solo las columnas que muestra la
+    // lista y la descripción truncada a TaskListItem.DESCRIPTION_PREVIEW_LENGTH.
+    // Los IDs de etiquetas ([TaskWithTags]) se cargan con una consulta por página,
+    // dentro de la misma transacción (@Transaction).
+
+    /**
+     * Lista paginada de tareas que cumplen una consulta de varios criterios
+     * generada por [com.ecci.taskmanager.data.database.TaskQueryCompiler].
+     *
+     * Room invalida la [PagingSource] cuando cambian las tablas observadas y solo
+     * vuelve a cargar las páginas visibles, en lugar de materializar toda la lista.
+     * Las etiquetas de cada página se cargan con una sola consulta (ver [TaskWithTags]).
+     *
+     * @param query Consulta compilada a partir de un [com.ecci.taskmanager.data.model.TaskQuery].
+     * @return [PagingSource] con las filas de lista que cumplen todos los criterios.
+     */
+    @Transaction
+    @RawQuery(
+        observedEntities = [
+            Task::class,
+            TaskArchive::class,
+            TaskTagCrossRef::class,
+            TaskArchiveTagCrossRef::class
+        ]
+    )
+    fun getTasksPaged(query: SupportSQLiteQuery): PagingSource<Int, TaskWithTags>
 
     /**
      * Actualiza los datos de una tarea específica.
@@ -185,6 +370,49 @@ interface TaskDao {
     @Query("UPDATE tasks SET status = :status WHERE id = :taskId")
     suspend fun updateTaskStatus(taskId: Long, status: TaskStatus)
 
+    /**
+     * Devuelve una tarea completada a estado pendiente y borra su fecha de finalización.
+     *
+     * @param taskId Identificador de la tarea.
+     */
+    @Query("UPDATE tasks SET status = 0, completedAt = NULL WHERE id = :taskId")
+    suspend fun markAsPending(taskId: Long)
+
+    /**
+     * Marca como vencidas (OVERDUE) todas las tareas pendientes cuya fecha límite ya pasó.
+     *
+     * Es una única sentencia basada en conjuntos: recorre solo el rango
+     * `status = 0 AND dueDate < :currentDate` del índice (status, dueDate, priority)
+     * y se ejecuta en una sola transacción.
+     *
+     * @param currentDate Fecha actual en milisegundos.
+     * @return Número de tareas actualizadas.
+     */
+    @Query("UPDATE tasks SET status = 2 WHERE status = 0 AND dueDate < :currentDate AND deletedAt IS NULL")
+    suspend fun markOverdueTasks(currentDate: Long): Int
+
+    /**
+     * Devuelve a pendiente (PENDING) las tareas vencidas cuya fecha límite se movió
+     * al futuro o se quitó.
+     *
+     * @param currentDate Fecha actual en milisegundos.
+     * @return Número de tareas actualizadas.
+     */
+    @Query("UPDATE tasks SET status = 0 WHERE status = 2 AND (dueDate IS NULL OR dueDate >= :currentDate) AND deletedAt IS NULL")
+    suspend fun markNoLongerOverdueTasks(currentDate: Long): Int
+
+    /**
+     * Recalcula el estado OVERDUE en ambos sentidos dentro de una transacción.
+     *
+     * @param currentDate Fecha actual en milisegundos.
+     * @return Número de tareas marcadas como vencidas.
+     */
+    @Transaction
+    suspend fun refreshOverdueStatus(currentDate: Long): Int {
+        markNoLongerOverdueTasks(currentDate)
+        return markOverdueTasks(currentDate)
+    }
+
     /**
      * Marca una tarea como completada y actualiza la fecha de finalización.
      *
@@ -193,7 +421,7 @@ interface TaskDao {
      */
     @Query("""
         UPDATE tasks 
-        SET status = 'COMPLETED', completedAt = :completedAt 
+        SET status = 1, completedAt = :completedAt 
         WHERE id = :taskId
     """)
     suspend fun markAsCompleted(taskId: Long, completedAt: Long = System.currentTimeMillis())
@@ -228,10 +456,68 @@ interface TaskDao {
     @Query("DELETE FROM tasks WHERE id = :taskId")
     suspend fun deleteById(taskId: Long)
 
+    /**
+     * Marca una tarea como eliminada sin borrar la fila.
+     *
+     * Es una sola actualización de una columna; la fila, sus etiquetas y su
+     * entrada en `tasks_fts` se conservan hasta la purga, lo que permite
+     * deshacer la eliminación con [restore].
+     *
+     * @param taskId Identificador de la tarea.
+     * @param deletedAt Fecha de eliminación en milisegundos.
+     * @return Número de filas actualizadas (0 si no existe o ya estaba eliminada).
+     */
+    @Query("UPDATE tasks SET deletedAt = :deletedAt WHERE id = :taskId AND deletedAt IS NULL")
+    suspend fun softDelete(taskId: Long, deletedAt: Long = System.currentTimeMillis()): Int
+
+    /**
+     * Recupera una tarea marcada como eliminada.
+     *
+     * @param taskId Identificador de la tarea.
+     * @return Número de filas actualizadas (0 si no estaba eliminada o ya se purgó).
+     */
+    @Query("UPDATE tasks SET deletedAt = NULL WHERE id = :taskId AND deletedAt IS NOT NULL")
+    suspend fun restore(taskId: Long): Int
+
+    /**
+     * Obtiene los IDs de un bloque de tareas eliminadas antes de una fecha,
+     * recorriendo el índice sobre `deletedAt`.
+     *
+     * @param cutoff Fecha límite de eliminación en milisegundos.
+     * @param limit Tamaño máximo del bloque.
+     * @return IDs de las tareas a purgar, más antiguas primero.
+     */
+    @Query("""
+        SELECT id FROM tasks
+        WHERE deletedAt < :cutoff
+        ORDER BY deletedAt ASC
+        LIMIT :limit
+    """)
+    suspend fun getPurgeableTaskIds(cutoff: Long, limit: Int): List<Long>
+
+    /**
+     * Elimina físicamente un bloque de tareas marcadas como eliminadas antes de [cutoff].
+     *
+     * Sus etiquetas se eliminan en cascada y los triggers de `tasks_fts` retiran
+     * sus entradas del índice de texto completo.
+     *
+     * @param cutoff Fecha límite de eliminación en milisegundos.
+     * @param limit Tamaño máximo del bloque.
+     * @return Cantidad de tareas purgadas (0 si no quedan más).
+     */
+    @Transaction
+    suspend fun purgeDeletedChunk(cutoff: Long, limit: Int): Int {
+        val taskIds = getPurgeableTaskIds(cutoff, limit)
+        if (taskIds.isNotEmpty()) {
+            deleteByIds(taskIds)
+        }
+        return taskIds.size
+    }
+
     /**
      * Elimina todas las tareas que ya fueron completadas.
      */
-    @Query("DELETE FROM tasks WHERE status = 'COMPLETED'")
+    @Query("DELETE FROM tasks WHERE status = 1")
     suspend fun deleteCompletedTasks()
 
     /**
@@ -243,78 +529,273 @@ interface TaskDao {
     /**
      * Obtiene el número total de tareas registradas.
      *
-     * @return [LiveData] con el conteo total.
+     * Se lee de `task_counters` (mantenida por triggers), por lo que es una búsqueda
+     * por clave primaria y solo se invalida cuando cambia esa tabla.
+     *
+     * @return [Flow] con el conteo total.
      */
-    @Query("SELECT COUNT(*) FROM tasks")
-    fun getTotalTasksCount(): LiveData<Int>
+    @Query("SELECT COALESCE((SELECT count FROM task_counters WHERE scope = 'global' AND scopeId = 0), 0)")
+    fun getTotalTasksCount(): Flow<Int>
 
     /**
      * Obtiene la cantidad de tareas completadas.
      *
-     * @return [LiveData] con el conteo de tareas completadas.
+     * @return [Flow] con el conteo de tareas completadas.
      */
-    @Query("SELECT COUNT(*) FROM tasks WHERE status = 'COMPLETED'")
-    fun getCompletedTasksCount(): LiveData<Int>
+    @Query("SELECT COALESCE((SELECT count FROM task_counters WHERE scope = 'status' AND scopeId = 1), 0)")
+    fun getCompletedTasksCount(): Flow<Int>
 
     /**
      * Obtiene la cantidad de tareas pendientes.
      *
-     * @return [LiveData] con el conteo de tareas pendientes.
+     * @return [Flow] con el conteo de tareas pendientes.
      */
-    @Query("SELECT COUNT(*) FROM tasks WHERE status = 'PENDING'")
-    fun getPendingTasksCount(): LiveData<Int>
+    @Query("SELECT COALESCE((SELECT count FROM task_counters WHERE scope = 'status' AND scopeId = 0), 0)")
+    fun getPendingTasksCount(): Flow<Int>
 
     /**
      * Obtiene la cantidad de tareas vencidas no completadas.
      *
      * @param currentDate Fecha actual en milisegundos.
-     * @return [LiveData] con el conteo de tareas vencidas.
+     * @return [Flow] con el conteo de tareas vencidas.
      */
     @Query("""
         SELECT COUNT(*) FROM tasks 
-        WHERE status != 'COMPLETED' 
+        WHERE status IN (0, 2) 
         AND dueDate < :currentDate
+        AND deletedAt IS NULL
+    """)
+    fun getOverdueTasksCount(currentDate: Long = System.currentTimeMillis()): Flow<Int>
+
+    /**
+     * Calcula todas las estadísticas de la pantalla de resumen en una sola consulta.
+     *
+     * Los totales por estado y prioridad provienen de `task_counters` (incluyen las
+     * tareas archivadas); las tareas vencidas o del día se cuentan con agregaciones
+     * condicionales sobre las tareas no completadas, las únicas que pueden estarlo.
+     *
+     * @param currentDate Fecha actual en milisegundos (para las tareas vencidas).
+     * @param dayStart Inicio del día local en milisegundos.
+     * @param dayEnd Fin del día local en milisegundos (inclusive).
+     * @return [Flow] con el resumen de estadísticas.
+     */
+    @Query("""
+        SELECT
+            COALESCE((SELECT count FROM task_counters WHERE scope = 'global' AND scopeId = 0), 0) AS totalCount,
+            COALESCE((SELECT count FROM task_counters WHERE scope = 'status' AND scopeId = 1), 0) AS completedCount,
+            COALESCE((SELECT count FROM task_counters WHERE scope = 'status' AND scopeId = 0), 0) AS pendingCount,
+            COALESCE(SUM(dueDate < :currentDate), 0) AS overdueCount,
+            COALESCE(SUM(dueDate BETWEEN :dayStart AND :dayEnd), 0) AS todayCount,
+            COALESCE((SELECT count FROM task_counters WHERE scope = 'priority' AND scopeId = 3), 0) AS highPriorityCount,
+            COALESCE((SELECT count FROM task_counters WHERE scope = 'priority' AND scopeId = 2), 0) AS mediumPriorityCount,
+            COALESCE((SELECT count FROM task_counters WHERE scope = 'priority' AND scopeId = 1), 0) AS lowPriorityCount
+        FROM tasks
+        WHERE status IN (0, 2) AND deletedAt IS NULL
     """)
-    fun getOverdueTasksCount(currentDate: Long = System.currentTimeMillis()): LiveData<Int>
+    fun getStatsSnapshot(currentDate: Long, dayStart: Long, dayEnd: Long): Flow<TaskStatsSnapshot>
 
     /**
      * Obtiene las tareas completadas dentro de un rango de fechas.
      *
+     * Combina `tasks` y `tasks_archive`; cada rama recorre su índice sobre
+     * `completedAt` y solo se ordena el resultado del rango.
+     *
      * @param startDate Fecha de inicio del rango en milisegundos.
      * @param endDate Fecha de finalización del rango en milisegundos.
-     * @return [LiveData] con la lista de tareas completadas en ese período.
+     * @return [Flow] con la lista de tareas completadas en ese período.
      */
     @Query("""
-        SELECT * FROM tasks 
-        WHERE status = 'COMPLETED' 
+        SELECT id, title, description, dueDate, priority, status, categoryId,
+            createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+            recurringMask, startMinute, endMinute, deletedAt
+        FROM tasks
+        WHERE status = 1 
         AND completedAt BETWEEN :startDate AND :endDate
+        AND deletedAt IS NULL
+        UNION ALL
+        SELECT id, title, description, dueDate, priority, status, categoryId,
+            createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+            recurringMask, startMinute, endMinute, deletedAt
+        FROM tasks_archive
+        WHERE completedAt BETWEEN :startDate AND :endDate
         ORDER BY completedAt DESC
     """)
-    fun getTasksCompletedInRange(startDate: Long, endDate: Long): LiveData<List<Task>>
+    fun getTasksCompletedInRange(startDate: Long, endDate: Long): Flow<List<Task>>
+
+    /**
+     * Obtiene una página del historial de tareas completadas (incluidas las archivadas),
+     * de la más reciente a la más antigua.
+     *
+     * Usa paginación por cursor (keyset): la página empieza justo después de la fila
+     * (`beforeCompletedAt`, `beforeId`), por lo que cada rama recorre su índice sobre
+     * `completedAt` desde esa posición y solo lee `limit` filas, sin importar cuán
+     * atrás esté la página. Para la primera página se pasa [Long.MAX_VALUE] en ambos.
+     *
+     * La condición `completedAt <= :beforeCompletedAt` es redundante pero permite a
+     * SQLite usar el índice como rango.
+     *
+     * @param beforeCompletedAt `completedAt` de la última fila de la página anterior.
+     * @param beforeId ID de la última fila de la página anterior (desempate).
+     * @param limit Tamaño de la página.
+     * @return Tareas completadas ordenadas por (completedAt, id) descendente.
+     */
+    @Query("""
+        SELECT id, title, priority, completedAt FROM tasks
+        WHERE status = 1 AND deletedAt IS NULL
+        AND completedAt <= :beforeCompletedAt
+        AND (completedAt < :beforeCompletedAt OR id < :beforeId)
+        UNION ALL
+        SELECT id, title, priority, completedAt FROM tasks_archive
+        WHERE completedAt <= :beforeCompletedAt
+        AND (completedAt < :beforeCompletedAt OR id < :beforeId)
+        ORDER BY completedAt DESC, id DESC
+        LIMIT :limit
+    """)
+    suspend fun getCompletedHistoryPage(
+        beforeCompletedAt: Long,
+        beforeId: Long,
+        limit: Int
+    ): List<CompletedTaskItem>
+
+    /**
+     * Obtiene las tareas completadas más recientes que la fila (`afterCompletedAt`,
+     * `afterId`), empezando por la más cercana a ella.
+     *
+     * Es la consulta simétrica de [getCompletedHistoryPage] para cargar hacia atrás
+     * (hacia las más recientes) cuando la lista se recarga desde una posición intermedia.
+     *
+     * @param afterCompletedAt `completedAt` de la primera fila de la página siguiente.
+     * @param afterId ID de la primera fila de la página siguiente (desempate).
+     * @param limit Tamaño de la página.
+     * @return Tareas completadas ordenadas por (completedAt, id) ascendente.
+     */
+    @Query("""
+        SELECT id, title, priority, completedAt FROM tasks
+        WHERE status = 1 AND deletedAt IS NULL
+        AND completedAt >= :afterCompletedAt
+        AND (completedAt > :afterCompletedAt OR id > :afterId)
+        UNION ALL
+        SELECT id, title, priority, completedAt FROM tasks_archive
+        WHERE completedAt >= :afterCompletedAt
+        AND (completedAt > :afterCompletedAt OR id > :afterId)
+        ORDER BY completedAt ASC, id ASC
+        LIMIT :limit
+    """)
+    suspend fun getCompletedHistoryPageAfter(
+        afterCompletedAt: Long,
+        afterId: Long,
+        limit: Int
+    ): List<CompletedTaskItem>
+
+    // ------------------------------
+    // Archivo de tareas completadas
+    // ------------------------------
+
+    /**
+     * Obtiene los IDs de un bloque de tareas completadas antes de una fecha,
+     * recorriendo el índice (status, completedAt).
+     *
+     * @param cutoff Fecha límite de finalización en milisegundos.
+     * @param limit Tamaño máximo del bloque.
+     * @return IDs de las tareas a archivar, más antiguas primero.
+     */
+    @Query("""
+        SELECT id FROM tasks
+        WHERE status = 1 AND completedAt < :cutoff AND deletedAt IS NULL
+        ORDER BY completedAt ASC
+        LIMIT :limit
+    """)
+    suspend fun getArchivableTaskIds(cutoff: Long, limit: Int): List<Long>
+
+    /**
+     * Copia las tareas indicadas a `tasks_archive`.
+     *
+     * @param taskIds IDs de las tareas a copiar.
+     */
+    @Query("""
+        INSERT OR REPLACE INTO tasks_archive (
+            id, title, description, dueDate, priority, status, categoryId,
+            createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+            recurringMask, startMinute, endMinute, deletedAt
+        )
+        SELECT
+            id, title, description, dueDate, priority, status, categoryId,
+            createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+            recurringMask, startMinute, endMinute, deletedAt
+        FROM tasks WHERE id IN (:taskIds)
+    """)
+    suspend fun copyToArchive(taskIds: List<Long>)
+
+    /**
+     * Copia a `task_archive_tag` las etiquetas de las tareas indicadas.
+     *
+     * @param taskIds IDs de las tareas cuyas etiquetas se copian.
+     */
+    @Query("""
+        INSERT OR IGNORE INTO task_archive_tag (taskId, tagId)
+        SELECT taskId, tagId FROM task_tag_cross_ref WHERE taskId IN (:taskIds)
+    """)
+    suspend fun copyTagsToArchive(taskIds: List<Long>)
+
+    /**
+     * Elimina de `tasks` las tareas indicadas.
+     *
+     * @param taskIds IDs de las tareas a eliminar.
+     */
+    @Query("DELETE FROM tasks WHERE id IN (:taskIds)")
+    suspend fun deleteByIds(taskIds: List<Long>)
+
+    /**
+     * Mueve al archivo un bloque de tareas completadas antes de [cutoff].
+     *
+     * La copia y la eliminación ocurren en la misma transacción, por lo que cada
+     * tarea está siempre en una sola de las dos tablas. Las etiquetas se copian
+     * antes de eliminar la tarea, ya que el borrado elimina en cascada sus vínculos.
+     *
+     * @param cutoff Fecha límite de finalización en milisegundos.
+     * @param limit Tamaño máximo del bloque.
+     * @return Número de tareas archivadas (0 si no quedan más).
+     */
+    @Transaction
+    suspend fun archiveCompletedChunk(cutoff: Long, limit: Int): Int {
+        val taskIds = getArchivableTaskIds(cutoff, limit)
+        if (taskIds.isNotEmpty()) {
+            copyToArchive(taskIds)
+            copyTagsToArchive(taskIds)
+            deleteByIds(taskIds)
+        }
+        return taskIds.size
+    }
+
+    /**
+     * Elimina todas las tareas archivadas.
+     */
+    @Query("DELETE FROM tasks_archive")
+    suspend fun deleteArchivedTasks()
 
     /**
      * Clase interna que define los convertidores para transformar
-     * los valores del enumerado [TaskStatus] en cadenas y viceversa,
+     * los valores del enumerado [TaskStatus] en códigos enteros y viceversa,
      * permitiendo su almacenamiento en la base de datos.
      */
     class TaskStatusConverter {
 
         /**
-         * Convierte un valor de tipo [TaskStatus] a una cadena.
+         * Convierte un valor de tipo [TaskStatus] a su código entero.
          *
          * @param status Estado de la tarea.
-         * @return Representación en texto del estado.
+         * @return Código entero del estado.
          */
         @TypeConverter
-        fun fromStatus(status: TaskStatus): String = status.name
+        fun fromStatus(status: TaskStatus): Int = status.code
 
         /**
-         * Convierte una cadena de texto al tipo [TaskStatus].
+         * Convierte un código entero al tipo [TaskStatus].
          *
-         * @param value Texto que representa un estado.
+         * @param value Código que representa un estado.
          * @return Valor correspondiente del enumerado [TaskStatus].
          */
         @TypeConverter
-        fun toStatus(value: String): TaskStatus = TaskStatus.valueOf(value)
+        fun toStatus(value: Int): TaskStatus = TaskStatus.fromCode(value)
     }
 }
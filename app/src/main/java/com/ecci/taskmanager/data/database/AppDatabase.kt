@@ -12,7 +12,12 @@ import com.ecci.taskmanager.data.dao.TaskDao
 import com.ecci.taskmanager.data.model.Category
 import com.ecci.taskmanager.data.model.Tag
 import com.ecci.taskmanager.data.model.Task
+import com.ecci.taskmanager.data.model.TaskArchive
+import com.ecci.taskmanager.data.model.TaskArchiveTagCrossRef
+import com.ecci.taskmanager.data.model.TaskCounter
+import com.ecci.taskmanager.data.model.TaskFts
 import com.ecci.taskmanager.data.model.TaskTagCrossRef
+import com.ecci.taskmanager.data.model.TaskTagRef
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
@@ -30,14 +35,21 @@ import kotlinx.coroutines.launch
 @Database(
     entities = [
         Task::class,
+        TaskFts::class,
         Category::class,
         Tag::class,
-        TaskTagCrossRef::class
+        TaskTagCrossRef::class,
+        TaskCounter::class,
+        TaskArchive::class,
+        TaskArchiveTagCrossRef::class
     ],
-    version = 2, // Versión actual de la base de datos (incrementar en caso de cambios estructurales)
-    exportSchema = false
+    views = [
+        TaskTagRef::class
+    ],
+    version = 10, // Versión actual de la base de datos (incrementar en caso de cambios estructurales)
+    exportSchema = true // app/schemas: un JSON por versión para probar las migraciones
 )
-@TypeConverters(Converters::class) // Conversor para manejar enums TaskStatus y Priority
+@TypeConverters(Converters::class) // Conversor para manejar enums TaskStatus y Priority como enteros
 abstract class AppDatabase : RoomDatabase() {
 
     /** DAO para la gestión de tareas (Task). */
@@ -70,8 +82,12 @@ abstract class AppDatabase : RoomDatabase() {
                     AppDatabase::class.java,
                     "task_manager_database" // Nombre del archivo físico de la base de datos
                 )
+                    .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING) // Lectores y escritor concurrentes
+                    .setQueryExecutor(DatabaseExecutors.interactive) // Lecturas de la UI
+                    .setTransactionExecutor(DatabaseExecutors.writer) // Un único escritor serializado
                     .addCallback(DatabaseCallback()) // Inicializa datos al crear la BD
-                    .fallbackToDestructiveMigration() // Elimina y recrea la BD si hay cambios sin migración definida
+                    .addMigrations(*Migrations.ALL) // Conserva los datos al actualizar el esquema
+                    .fallbackToDestructiveMigrationFrom(1) // La versión 1 no tiene migración definida
                     .build()
 
                 INSTANCE = instance
@@ -80,8 +96,9 @@ abstract class AppDatabase : RoomDatabase() {
         }
 
         /**
-         * Callback que se ejecuta cuando la base de datos es creada por primera vez.
-         * Permite inicializar datos predeterminados.
+         * Callback que se ejecuta cuando la base de datos es creada por primera vez
+         * y cada vez que se abre.
+         * Permite inicializar datos predeterminados e instalar los triggers propios.
          */
         private class DatabaseCallback : RoomDatabase.Callback() {
             override fun onCreate(db: SupportSQLiteDatabase) {
@@ -93,6 +110,16 @@ abstract class AppDatabase : RoomDatabase() {
                     }
                 }
             }
+
+            override fun onOpen(db: SupportSQLiteDatabase) {
+                super.onOpen(db)
+
+                // Los reemplazos (REPLACE) deben disparar los triggers de eliminación
+                db.execSQL("PRAGMA recursive_triggers = ON")
+                // En modo WAL, NORMAL es seguro ante cierres de la app y evita un fsync por commit
+                db.execSQL("PRAGMA synchronous = NORMAL")
+                TaskCounterTriggers.install(db)
+            }
         }
 
         /**
@@ -9,7 +9,10 @@ import com.ecci.taskmanager.data.model.Priority
  *
  * Room solo puede almacenar tipos de datos primitivos (Int, String, Boolean, etc.),
  * por lo que se requiere esta clase para convertir objetos de tipo [TaskStatus] y [Priority]
- * a valores de texto (String) que puedan ser persistidos en la base de datos.
+ * a valores enteros que puedan ser persistidos en la base de datos.
+ *
+ * Se almacenan enteros (y no el nombre del enum) para que las comparaciones y el
+ * ordenamiento por prioridad sean numéricos y puedan aprovechar los índices.
  *
  * Los métodos marcados con [TypeConverter] indican a Room cómo transformar los tipos
  * antes de guardarlos o leerlos desde la base de datos.x
@@ -21,22 +24,22 @@ class Converters {
     // ------------------------------
 
     /**
-     * Convierte un objeto [TaskStatus] a su representación en texto.
+     * Convierte un objeto [TaskStatus] a su código entero.
      *
      * @param status Estado de la tarea a convertir (por ejemplo, PENDING, COMPLETED).
-     * @return Una cadena de texto con el nombre del estado.
+     * @return El código entero del estado ([TaskStatus.code]).
      */
     @TypeConverter
-    fun fromTaskStatus(status: TaskStatus): String = status.name
+    fun fromTaskStatus(status: TaskStatus): Int = status.code
 
     /**
-     * Convierte una cadena de texto a un objeto [TaskStatus].
+     * Convierte un código entero a un objeto [TaskStatus].
      *
-     * @param value Cadena que representa un estado almacenado en la base de datos.
+     * @param value Código que representa un estado almacenado en la base de datos.
      * @return El valor correspondiente de la enumeración [TaskStatus].
      */
     @TypeConverter
-    fun toTaskStatus(value: String): TaskStatus = TaskStatus.valueOf(value)
+    fun toTaskStatus(value: Int): TaskStatus = TaskStatus.fromCode(value)
 
 
     // ------------------------------
@@ -44,20 +47,20 @@ class Converters {
     // ------------------------------
 
     /**
-     * Convierte un objeto [Priority] a su representación en texto.
+     * Convierte un objeto [Priority] a su valor numérico.
      *
      * @param priority Prioridad de la tarea a convertir (por ejemplo, HIGH, MEDIUM, LOW).
-     * @return Una cadena de texto con el nombre de la prioridad.
+     * @return El valor numérico de la prioridad ([Priority.value]), donde mayor es más urgente.
      */
     @TypeConverter
-    fun fromPriority(priority: Priority): String = priority.name
+    fun fromPriority(priority: Priority): Int = priority.value
 
     /**
-     * Convierte una cadena de texto a un objeto [Priority].
+     * Convierte un valor numérico a un objeto [Priority].
      *
-     * @param value Cadena que representa una prioridad almacenada en la base de datos.
+     * @param value Valor que representa una prioridad almacenada en la base de datos.
      * @return El valor correspondiente de la enumeración [Priority].
      */
     @TypeConverter
-    fun toPriority(value: String): Priority = Priority.valueOf(value)
+    fun toPriority(value: Int): Priority = Priority.fromValue(value)
 }
@@ -0,0 +1,134 @@
+package com.ecci.taskmanager.data.database
+
+import android.os.Process
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.asCoroutineDispatcher
+import java.util.concurrent.Executor
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Carriles de ejecución dedicados para el acceso a la base de datos.
+ *
+ * - [interactive]: lecturas de Room (listas, paginación, contadores observados).
+ *   Tiene tantos hilos como conexiones de lectura ofrece el pool de SQLite en modo WAL.
+ * - [writer]: un único hilo para transacciones y escrituras. SQLite solo admite un
+ *   escritor a la vez, así que serializarlas evita esperas por bloqueo.
+ * - [analytics]: trabajo en segundo plano de baja prioridad (preparación de
+ *   importaciones, cálculos derivados) que no debe competir con la UI.
+ *
+ * Cada carril expone su profundidad de cola y latencias mediante [metrics].
+ */
+object DatabaseExecutors {
+
+    /** Hilos de lectura: el pool WAL de Android reserva una conexión para escritura. */
+    private const val READER_THREADS = 3
+
+    val interactive = DatabaseLane("db-interactive", READER_THREADS, Process.THREAD_PRIORITY_DEFAULT)
+    val writer = DatabaseLane("db-writer", 1, Process.THREAD_PRIORITY_DEFAULT)
+    val analytics = DatabaseLane("db-analytics", 1, Process.THREAD_PRIORITY_BACKGROUND)
+
+    /** Dispatcher de corrutinas sobre el carril [analytics]. */
+    val analyticsDispatcher: CoroutineDispatcher = analytics.asCoroutineDispatcher()
+
+    /** Métricas actuales de todos los carriles. */
+    fun metrics(): List<LaneMetrics> = listOf(interactive, writer, analytics).map { it.metrics() }
+}
+
+/**
+ * Métricas de un carril de ejecución.
+ *
+ * @property name Nombre del carril.
+ * @property queueDepth Tareas en cola que aún no comenzaron a ejecutarse.
+ * @property completed Tareas finalizadas desde el inicio del proceso.
+ * @property averageWaitMillis Tiempo medio en cola.
+ * @property maxWaitMillis Mayor tiempo en cola observado.
+ * @property averageRunMillis Tiempo medio de ejecución.
+ */
+data class LaneMetrics(
+    val name: String,
+    val queueDepth: Int,
+    val completed: Long,
+    val averageWaitMillis: Double,
+    val maxWaitMillis: Double,
+    val averageRunMillis: Double
+)
+
+/**
+ * [Executor] de tamaño fijo que mide cuánto espera y cuánto tarda cada tarea.
+ *
+ * @param name Prefijo de los hilos y nombre del carril en las métricas.
+ * @param threads Número de hilos del carril.
+ * @param threadPriority Prioridad de los hilos (constantes de [Process]).
+ */
+class DatabaseLane(
+    private val name: String,
+    threads: Int,
+    private val threadPriority: Int
+) : Executor {
+
+    private val queued = AtomicInteger()
+    private val completed = AtomicLong()
+    private val totalWaitNanos = AtomicLong()
+    private val maxWaitNanos = AtomicLong()
+    private val totalRunNanos = AtomicLong()
+
+    private val threadCount = AtomicInteger()
+
+    private val delegate = ThreadPoolExecutor(
+        threads,
+        threads,
+        KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS,
+        LinkedBlockingQueue()
+    ) { runnable ->
+        Thread({
+            Process.setThreadPriority(threadPriority)
+            runnable.run()
+        }, "$name-${threadCount.incrementAndGet()}")
+    }.apply {
+        // Los hilos inactivos se liberan; se recrean al llegar trabajo
+        allowCoreThreadTimeOut(true)
+    }
+
+    override fun execute(command: Runnable) {
+        val enqueuedAt = System.nanoTime()
+        queued.incrementAndGet()
+
+        delegate.execute {
+            val startedAt = System.nanoTime()
+            queued.decrementAndGet()
+
+            try {
+                command.run()
+            } finally {
+                val waitNanos = startedAt - enqueuedAt
+                totalWaitNanos.addAndGet(waitNanos)
+                maxWaitNanos.accumulateAndGet(waitNanos, ::maxOf)
+                totalRunNanos.addAndGet(System.nanoTime() - startedAt)
+                completed.incrementAndGet()
+            }
+        }
+    }
+
+    /** Instantánea de las métricas del carril. */
+    fun metrics(): LaneMetrics {
+        val count = completed.get()
+        return LaneMetrics(
+            name = name,
+            queueDepth = queued.get(),
+            completed = count,
+            averageWaitMillis = if (count == 0L) 0.0 else totalWaitNanos.get() / count / NANOS_PER_MILLI,
+            maxWaitMillis = maxWaitNanos.get() / NANOS_PER_MILLI,
+            averageRunMillis = if (count == 0L) 0.0 else totalRunNanos.get() / count / NANOS_PER_MILLI
+        )
+    }
+
+    private companion object {
+        const val KEEP_ALIVE_SECONDS = 30L
+        const val NANOS_PER_MILLI = 1_000_000.0
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecci.taskmanager.data.database
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import kotlin.math.ln
+
+/**
+ * Utilidades para construir consultas `MATCH` y ordenar sus resultados
+ * sobre la tabla de texto completo `tasks_fts`.
+ */
+object FtsQuery {
+
+    /** Parámetro de saturación de frecuencia de BM25. */
+    private const val K1 = 1.2
+
+    /** Parámetro de normalización por longitud de BM25. */
+    private const val B = 0.75
+
+    /** Peso de cada columna indexada: título y descripción. */
+    private val COLUMN_WEIGHTS = doubleArrayOf(2.0, 1.0)
+
+    /**
+     * Convierte el texto escrito por el usuario en una consulta de prefijos.
+     *
+     * Se descartan los operadores de FTS (comillas, asteriscos, paréntesis, etc.)
+     * y cada palabra se convierte en un prefijo, de modo que "reu proy" produce
+     * `reu* proy*` (todas las palabras deben aparecer).
+     *
+     * @param raw Texto de búsqueda ingresado.
+     * @return Consulta lista para `MATCH`, o `null` si no contiene palabras.
+     */
+    fun prefixQuery(raw: String): String? {
+        val terms = raw.split(Regex("[^\\p{L}\\p{N}]+")).filter { it.isNotEmpty() }
+        if (terms.isEmpty()) return null
+        return terms.joinToString(" ") { "$it*" }
+    }
+
+    /**
+     * Calcula la relevancia BM25 de una fila a partir de `matchinfo(..., 'pcnalx')`.
+     *
+     * FTS4 no incluye una función de ranking, por lo que se reproduce aquí la
+     * fórmula de FTS5 ponderando el título por encima de la descripción.
+     *
+     * @param matchInfo Blob devuelto por `matchinfo` (enteros de 32 bits en orden nativo).
+     * @return Puntuación de relevancia; mayor es más relevante.
+     */
+    fun bm25(matchInfo: ByteArray): Double {
+        val info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer()
+        val phrases = info.get(0)
+        val columns = info.get(1)
+        val totalDocs = info.get(2).toDouble()
+        val avgOffset = 3
+        val lenOffset = avgOffset + columns
+        val hitsOffset = lenOffset + columns
+
+        var score = 0.0
+        for (phrase in 0 until phrases) {
+            for (column in 0 until columns) {
+                val base = hitsOffset + 3 * (column + phrase * columns)
+                val termFreq = info.get(base).toDouble()
+                if (termFreq == 0.0) continue
+
+                val docsWithHit = info.get(base + 2).toDouble()
+                val idf = ln((totalDocs - docsWithHit + 0.5) / (docsWithHit + 0.5)).coerceAtLeast(1e-6)
+                val avgLen = info.get(avgOffset + column).toDouble().coerceAtLeast(1.0)
+                val docLen = info.get(lenOffset + column).toDouble()
+                val weight = COLUMN_WEIGHTS.getOrElse(column) { 1.0 }
+
+                score += weight * idf * (termFreq * (K1 + 1)) /
+                    (termFreq + K1 * (1 - B + B * docLen / avgLen))
+            }
+        }
+        return score
+    }
+}
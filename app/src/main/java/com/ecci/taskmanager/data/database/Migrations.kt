@@ -0,0 +1,486 @@
+package com.ecci.taskmanager.data.database
+
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Migraciones de esquema de la base de datos [AppDatabase].
+ *
+ * Cada migración transforma la base de datos de una versión a la siguiente
+ * conservando los datos del usuario, en lugar de recrear las tablas desde cero.
+ *
+ * Las sentencias SQL deben coincidir exactamente con el esquema que Room espera
+ * para la versión de destino (nombres de índices, tipos y nulabilidad).
+ */
+object Migrations {
+
+    /**
+     * Versión 2 → 3: índices compuestos sobre la tabla `tasks`.
+     *
+     * Cada índice corresponde a un par filtro/orden utilizado por las consultas
+     * de [com.ecci.taskmanager.data.dao.TaskDao].
+     */
+    val MIGRATION_2_3 = object : Migration(2, 3) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_createdAt` ON `tasks` (`createdAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_createdAt` ON `tasks` (`status`, `createdAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_dueDate_priority` ON `tasks` (`status`, `dueDate`, `priority`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_completedAt` ON `tasks` (`status`, `completedAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_categoryId_createdAt` ON `tasks` (`categoryId`, `createdAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_priority_createdAt` ON `tasks` (`priority`, `createdAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_hasReminder_reminderTime` ON `tasks` (`hasReminder`, `reminderTime`)")
+        }
+    }
+
+    /**
+     * Versión 3 → 4: `priority` y `status` pasan de TEXT a INTEGER.
+     *
+     * SQLite no permite cambiar el tipo de una columna, por lo que se recrea la tabla
+     * `tasks` reescribiendo cada fila con [com.ecci.taskmanager.data.model.Priority.value]
+     * y [com.ecci.taskmanager.data.model.TaskStatus.code], y luego se recrean los índices.
+     */
+    val MIGRATION_3_4 = object : Migration(3, 4) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `tasks_new` (
+                    `id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL,
+                    `title` TEXT NOT NULL,
+                    `description` TEXT,
+                    `dueDate` INTEGER,
+                    `priority` INTEGER NOT NULL,
+                    `status` INTEGER NOT NULL,
+                    `categoryId` INTEGER,
+                    `createdAt` INTEGER NOT NULL,
+                    `completedAt` INTEGER,
+                    `hasReminder` INTEGER NOT NULL,
+                    `reminderTime` INTEGER,
+                    `isRecurring` INTEGER NOT NULL,
+                    `recurringDays` TEXT,
+                    `startTime` TEXT,
+                    `endTime` TEXT
+                )
+                """.trimIndent()
+            )
+            db.execSQL(
+                """
+                INSERT INTO `tasks_new` (
+                    id, title, description, dueDate, priority, status, categoryId,
+                    createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+                    recurringDays, startTime, endTime
+                )
+                SELECT
+                    id, title, description, dueDate,
+                    CASE priority WHEN 'HIGH' THEN 3 WHEN 'LOW' THEN 1 ELSE 2 END,
+                    CASE status WHEN 'COMPLETED' THEN 1 WHEN 'OVERDUE' THEN 2 ELSE 0 END,
+                    categoryId, createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+                    recurringDays, startTime, endTime
+                FROM `tasks`
+                """.trimIndent()
+            )
+            db.execSQL("DROP TABLE `tasks`")
+            db.execSQL("ALTER TABLE `tasks_new` RENAME TO `tasks`")
+
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_createdAt` ON `tasks` (`createdAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_createdAt` ON `tasks` (`status`, `createdAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_dueDate_priority` ON `tasks` (`status`, `dueDate`, `priority`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_completedAt` ON `tasks` (`status`, `completedAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_categoryId_createdAt` ON `tasks` (`categoryId`, `createdAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_priority_createdAt` ON `tasks` (`priority`, `createdAt`)")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_hasReminder_reminderTime` ON `tasks` (`hasReminder`, `reminderTime`)")
+        }
+    }
+
+    /**
+     * Versión 4 → 5: índice de texto completo `tasks_fts` sobre título y descripción.
+     *
+     * Se crean la tabla FTS4 de contenido externo y los triggers de sincronización
+     * tal como los genera Room para [com.ecci.taskmanager.data.model.TaskFts], y
+     * luego se reconstruye el índice con las tareas existentes.
+     */
+    val MIGRATION_4_5 = object : Migration(4, 5) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE VIRTUAL TABLE IF NOT EXISTS `tasks_fts` USING FTS4(" +
+                    "`title` TEXT NOT NULL, `description` TEXT, " +
+                    "tokenize=unicode61 `remove_diacritics=1`, content=`tasks`)"
+            )
+            createTaskFtsTriggers(db)
+            db.execSQL("INSERT INTO `tasks_fts`(`tasks_fts`) VALUES ('rebuild')")
+        }
+    }
+
+    /**
+     * Versión 5 → 6: tabla `task_counters` con los conteos iniciales.
+     *
+     * Los contadores se calculan una sola vez a partir de los datos existentes;
+     * a partir de ahí los mantienen los triggers de [TaskCounterTriggers],
+     * que se instalan al abrir la base de datos.
+     */
+    val MIGRATION_5_6 = object : Migration(5, 6) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `task_counters` (`scope` TEXT NOT NULL, " +
+                    "`scopeId` INTEGER NOT NULL, `count` INTEGER NOT NULL, PRIMARY KEY(`scope`, `scopeId`))"
+            )
+            db.execSQL("INSERT INTO task_counters (scope, scopeId, count) SELECT 'global', 0, COUNT(*) FROM tasks")
+            db.execSQL("INSERT INTO task_counters (scope, scopeId, count) SELECT 'status', status, COUNT(*) FROM tasks GROUP BY status")
+            db.execSQL("INSERT INTO task_counters (scope, scopeId, count) SELECT 'priority', priority, COUNT(*) FROM tasks GROUP BY priority")
+            db.execSQL(
+                "INSERT INTO task_counters (scope, scopeId, count) " +
+                    "SELECT 'category', categoryId, COUNT(*) FROM tasks WHERE categoryId IS NOT NULL GROUP BY categoryId"
+            )
+            db.execSQL(
+                "INSERT INTO task_counters (scope, scopeId, count) " +
+                    "SELECT 'tag', tagId, COUNT(*) FROM task_tag_cross_ref GROUP BY tagId"
+            )
+        }
+    }
+
+    /**
+     * Versión 6 → 7: claves foráneas en `tasks` y `task_tag_cross_ref`.
+     *
+     * Primero se eliminan en una sola pasada los vínculos huérfanos y se quita la
+     * categoría a las tareas cuya categoría ya no existe. Los triggers de
+     * [TaskCounterTriggers] solo se instalan al abrir la base de datos, después de
+     * todas las migraciones, así que en una actualización encadenada no existen: los
+     * contadores de etiqueta y de categoría se recalculan a partir de los datos ya
+     * depurados. Luego se recrean ambas tablas
+     * con sus claves foráneas (SQLite no permite agregarlas con ALTER TABLE), junto
+     * con sus índices, el índice nuevo sobre `tagId` y los triggers de `tasks_fts`.
+     */
+    val MIGRATION_6_7 = object : Migration(6, 7) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "DELETE FROM task_tag_cross_ref " +
+                    "WHERE taskId NOT IN (SELECT id FROM tasks) OR tagId NOT IN (SELECT id FROM tags)"
+            )
+            db.execSQL(
+                "UPDATE tasks SET categoryId = NULL " +
+                    "WHERE categoryId IS NOT NULL AND categoryId NOT IN (SELECT id FROM categories)"
+            )
+            db.execSQL("DELETE FROM task_counters WHERE scope IN ('tag', 'category')")
+            db.execSQL(
+                "INSERT INTO task_counters (scope, scopeId, count) " +
+                    "SELECT 'category', categoryId, COUNT(*) FROM tasks WHERE categoryId IS NOT NULL GROUP BY categoryId"
+            )
+            db.execSQL(
+                "INSERT INTO task_counters (scope, scopeId, count) " +
+                    "SELECT 'tag', tagId, COUNT(*) FROM task_tag_cross_ref GROUP BY tagId"
+            )
+
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `tasks_new` (
+                    `id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL,
+                    `title` TEXT NOT NULL,
+                    `description` TEXT,
+                    `dueDate` INTEGER,
+                    `priority` INTEGER NOT NULL,
+                    `status` INTEGER NOT NULL,
+                    `categoryId` INTEGER,
+                    `createdAt` INTEGER NOT NULL,
+                    `completedAt` INTEGER,
+                    `hasReminder` INTEGER NOT NULL,
+                    `reminderTime` INTEGER,
+                    `isRecurring` INTEGER NOT NULL,
+                    `recurringDays` TEXT,
+                    `startTime` TEXT,
+                    `endTime` TEXT,
+                    FOREIGN KEY(`categoryId`) REFERENCES `categories`(`id`) ON UPDATE NO ACTION ON DELETE SET NULL
+                )
+                """.trimIndent()
+            )
+            db.execSQL(
+                """
+                INSERT INTO `tasks_new` (
+                    id, title, description, dueDate, priority, status, categoryId,
+                    createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+                    recurringDays, startTime, endTime
+                )
+                SELECT
+                    id, title, description, dueDate, priority, status, categoryId,
+                    createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+                    recurringDays, startTime, endTime
+                FROM `tasks`
+                """.trimIndent()
+            )
+            db.execSQL("DROP TABLE `tasks`")
+            db.execSQL("ALTER TABLE `tasks_new` RENAME TO `tasks`")
+            createTaskIndices(db)
+            createTaskFtsTriggers(db)
+
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `task_tag_cross_ref_new` (
+                    `taskId` INTEGER NOT NULL,
+                    `tagId` INTEGER NOT NULL,
+                    PRIMARY KEY(`taskId`, `tagId`),
+                    FOREIGN KEY(`taskId`) REFERENCES `tasks`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE,
+                    FOREIGN KEY(`tagId`) REFERENCES `tags`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE
+                )
+                """.trimIndent()
+            )
+            db.execSQL("INSERT INTO `task_tag_cross_ref_new` (taskId, tagId) SELECT taskId, tagId FROM `task_tag_cross_ref`")
+            db.execSQL("DROP TABLE `task_tag_cross_ref`")
+            db.execSQL("ALTER TABLE `task_tag_cross_ref_new` RENAME TO `task_tag_cross_ref`")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_task_tag_cross_ref_tagId` ON `task_tag_cross_ref` (`tagId`)")
+        }
+    }
+
+    /**
+     * Versión 7 → 8: tabla `tasks_archive` para las tareas completadas antiguas.
+     *
+     * Tiene las mismas columnas que `tasks` (sin AUTOINCREMENT: conserva el ID
+     * original), la misma clave foránea a `categories` (SET NULL) e índices sobre
+     * `completedAt` para las consultas de historial y sobre `categoryId`. Se crean
+     * también `task_archive_tag`, que conserva las etiquetas al archivar, y la vista
+     * `task_tag_refs`, que une ambas tablas de vínculos.
+     */
+    val MIGRATION_7_8 = object : Migration(7, 8) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `tasks_archive` (
+                    `id` INTEGER NOT NULL,
+                    `title` TEXT NOT NULL,
+                    `description` TEXT,
+                    `dueDate` INTEGER,
+                    `priority` INTEGER NOT NULL,
+                    `status` INTEGER NOT NULL,
+                    `categoryId` INTEGER,
+                    `createdAt` INTEGER NOT NULL,
+                    `completedAt` INTEGER,
+                    `hasReminder` INTEGER NOT NULL,
+                    `reminderTime` INTEGER,
+                    `isRecurring` INTEGER NOT NULL,
+                    `recurringDays` TEXT,
+                    `startTime` TEXT,
+                    `endTime` TEXT,
+                    PRIMARY KEY(`id`),
+                    FOREIGN KEY(`categoryId`) REFERENCES `categories`(`id`) ON UPDATE NO ACTION ON DELETE SET NULL
+                )
+                """.trimIndent()
+            )
+            createArchiveIndices(db)
+
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `task_archive_tag` (
+                    `taskId` INTEGER NOT NULL,
+                    `tagId` INTEGER NOT NULL,
+                    PRIMARY KEY(`taskId`, `tagId`),
+                    FOREIGN KEY(`taskId`) REFERENCES `tasks_archive`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE,
+                    FOREIGN KEY(`tagId`) REFERENCES `tags`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE
+                )
+                """.trimIndent()
+            )
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_task_archive_tag_tagId` ON `task_archive_tag` (`tagId`)")
+
+            db.execSQL(
+                "CREATE VIEW `task_tag_refs` AS SELECT taskId, tagId FROM task_tag_cross_ref " +
+                    "UNION ALL SELECT taskId, tagId FROM task_archive_tag"
+            )
+        }
+    }
+
+    /**
+     * Versión 8 → 9: columna `deletedAt` para la eliminación lógica.
+     *
+     * Se agrega a `tasks` y a `tasks_archive` (que comparte sus columnas), con un
+     * índice en `tasks` para la purga. Los triggers de contadores cambian de
+     * definición, por lo que se eliminan los anteriores; las versiones `_v2` se
+     * instalan al abrir la base de datos.
+     */
+    val MIGRATION_8_9 = object : Migration(8, 9) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `deletedAt` INTEGER")
+            db.execSQL("ALTER TABLE `tasks_archive` ADD COLUMN `deletedAt` INTEGER")
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_deletedAt` ON `tasks` (`deletedAt`)")
+            db.execSQL("DROP TRIGGER IF EXISTS task_counters_tasks_insert")
+            db.execSQL("DROP TRIGGER IF EXISTS task_counters_tasks_delete")
+            db.execSQL("DROP TRIGGER IF EXISTS task_counters_tasks_update")
+            db.execSQL("DROP TRIGGER IF EXISTS task_counters_cross_ref_insert")
+            db.execSQL("DROP TRIGGER IF EXISTS task_counters_cross_ref_delete")
+        }
+    }
+
+    /**
+     * Versión 9 → 10: columnas de horario tipadas.
+     *
+     * `recurringDays` ("1,2,3") pasa a `recurringMask` (bit `d - 1` = día ISO `d`) y
+     * `startTime`/`endTime` ("HH:mm") a `startMinute`/`endMinute` (minutos desde la
+     * medianoche), de modo que las consultas de horario se resuelvan en SQLite.
+     *
+     * Se reconstruyen `tasks` y `tasks_archive` convirtiendo cada fila en SQL. Los
+     * triggers de `task_tag_cross_ref` consultan `tasks`, por lo que se eliminan
+     * antes de la reconstrucción; todos los triggers de contadores se vuelven a
+     * instalar al abrir la base de datos.
+     */
+    val MIGRATION_9_10 = object : Migration(9, 10) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("DROP TRIGGER IF EXISTS task_counters_cross_ref_insert_v2")
+            db.execSQL("DROP TRIGGER IF EXISTS task_counters_cross_ref_delete_v2")
+
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `tasks_new` (
+                    `id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL,
+                    `title` TEXT NOT NULL,
+                    `description` TEXT,
+                    `dueDate` INTEGER,
+                    `priority` INTEGER NOT NULL,
+                    `status` INTEGER NOT NULL,
+                    `categoryId` INTEGER,
+                    `createdAt` INTEGER NOT NULL,
+                    `completedAt` INTEGER,
+                    `hasReminder` INTEGER NOT NULL,
+                    `reminderTime` INTEGER,
+                    `isRecurring` INTEGER NOT NULL,
+                    `recurringMask` INTEGER NOT NULL,
+                    `startMinute` INTEGER,
+                    `endMinute` INTEGER,
+                    `deletedAt` INTEGER,
+                    FOREIGN KEY(`categoryId`) REFERENCES `categories`(`id`) ON UPDATE NO ACTION ON DELETE SET NULL
+                )
+                """.trimIndent()
+            )
+            copyWithTypedSchedule(db, from = "tasks", to = "tasks_new")
+            db.execSQL("DROP TABLE `tasks`")
+            db.execSQL("ALTER TABLE `tasks_new` RENAME TO `tasks`")
+            createTaskIndices(db)
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_deletedAt` ON `tasks` (`deletedAt`)")
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_tasks_recurringMask_startMinute_endMinute` " +
+                    "ON `tasks` (`recurringMask`, `startMinute`, `endMinute`)"
+            )
+            createTaskFtsTriggers(db)
+
+            db.execSQL(
+                """
+                CREATE TABLE IF NOT EXISTS `tasks_archive_new` (
+                    `id` INTEGER NOT NULL,
+                    `title` TEXT NOT NULL,
+                    `description` TEXT,
+                    `dueDate` INTEGER,
+                    `priority` INTEGER NOT NULL,
+                    `status` INTEGER NOT NULL,
+                    `categoryId` INTEGER,
+                    `createdAt` INTEGER NOT NULL,
+                    `completedAt` INTEGER,
+                    `hasReminder` INTEGER NOT NULL,
+                    `reminderTime` INTEGER,
+                    `isRecurring` INTEGER NOT NULL,
+                    `recurringMask` INTEGER NOT NULL,
+                    `startMinute` INTEGER,
+                    `endMinute` INTEGER,
+                    `deletedAt` INTEGER,
+                    PRIMARY KEY(`id`),
+                    FOREIGN KEY(`categoryId`) REFERENCES `categories`(`id`) ON UPDATE NO ACTION ON DELETE SET NULL
+                )
+                """.trimIndent()
+            )
+            copyWithTypedSchedule(db, from = "tasks_archive", to = "tasks_archive_new")
+            db.execSQL("DROP TABLE `tasks_archive`")
+            db.execSQL("ALTER TABLE `tasks_archive_new` RENAME TO `tasks_archive`")
+            createArchiveIndices(db)
+        }
+    }
+
+    /** Todas las migraciones registradas, en orden de versión. */
+    val ALL: Array<Migration> = arrayOf(
+        MIGRATION_2_3,
+        MIGRATION_3_4,
+        MIGRATION_4_5,
+        MIGRATION_5_6,
+        MIGRATION_6_7,
+        MIGRATION_7_8,
+        MIGRATION_8_9,
+        MIGRATION_9_10
+    )
+
+    /**
+     * Copia las filas de [from] a [to] convirtiendo las columnas de horario de
+     * texto (versión 9) a enteros (versión 10).
+     *
+     * Cada día de `recurringDays` aporta su bit si aparece en la lista; las horas
+     * con formato distinto de "HH:mm" o fuera de 00:00–23:59 quedan en `NULL`.
+     */
+    private fun copyWithTypedSchedule(db: SupportSQLiteDatabase, from: String, to: String) {
+        val days = "(',' || COALESCE(recurringDays, '') || ',')"
+        val mask = (1..7).joinToString(" | ") { day ->
+            "(CASE WHEN instr($days, ',$day,') > 0 THEN ${1 shl (day - 1)} ELSE 0 END)"
+        }
+        fun minutes(column: String) =
+            "(CASE WHEN $column GLOB '[0-2][0-9]:[0-5][0-9]' AND CAST(substr($column, 1, 2) AS INTEGER) < 24 " +
+                "THEN CAST(substr($column, 1, 2) AS INTEGER) * 60 + CAST(substr($column, 4, 2) AS INTEGER) " +
+                "ELSE NULL END)"
+
+        db.execSQL(
+            """
+            INSERT INTO `$to` (
+                id, title, description, dueDate, priority, status, categoryId,
+                createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+                recurringMask, startMinute, endMinute, deletedAt
+            )
+            SELECT
+                id, title, description, dueDate, priority, status, categoryId,
+                createdAt, completedAt, hasReminder, reminderTime, isRecurring,
+                $mask, ${minutes("startTime")}, ${minutes("endTime")}, deletedAt
+            FROM `$from`
+            """.trimIndent()
+        )
+    }
+
+    /**
+     * Crea los índices de `tasks` que existen desde la versión 3.
+     *
+     * Debe llamarse cada vez que se reconstruye la tabla, junto con los índices
+     * agregados en versiones posteriores.
+     */
+    private fun createTaskIndices(db: SupportSQLiteDatabase) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_createdAt` ON `tasks` (`createdAt`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_createdAt` ON `tasks` (`status`, `createdAt`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_dueDate_priority` ON `tasks` (`status`, `dueDate`, `priority`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_completedAt` ON `tasks` (`status`, `completedAt`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_categoryId_createdAt` ON `tasks` (`categoryId`, `createdAt`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_priority_createdAt` ON `tasks` (`priority`, `createdAt`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_hasReminder_reminderTime` ON `tasks` (`hasReminder`, `reminderTime`)")
+    }
+
+    /**
+     * Crea los índices de `tasks_archive`; debe llamarse cada vez que se reconstruye.
+     */
+    private fun createArchiveIndices(db: SupportSQLiteDatabase) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_archive_completedAt` ON `tasks_archive` (`completedAt`)")
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_archive_categoryId` ON `tasks_archive` (`categoryId`)")
+    }
+
+    /**
+     * Crea los triggers que mantienen `tasks_fts` sincronizada con `tasks`.
+     *
+     * Los nombres y cuerpos coinciden con los que Room genera para una entidad FTS
+     * de contenido externo. Deben recrearse cada vez que se reconstruye `tasks`,
+     * ya que SQLite elimina los triggers junto con la tabla.
+     */
+    private fun createTaskFtsTriggers(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_UPDATE " +
+                "BEFORE UPDATE ON `tasks` BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_DELETE " +
+                "BEFORE DELETE ON `tasks` BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_UPDATE " +
+                "AFTER UPDATE ON `tasks` BEGIN INSERT INTO `tasks_fts`(`docid`, `title`, `description`) " +
+                "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_INSERT " +
+                "AFTER INSERT ON `tasks` BEGIN INSERT INTO `tasks_fts`(`docid`, `title`, `description`) " +
+                "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END"
+        )
+    }
+}
@@ -0,0 +1,188 @@
+package com.ecci.taskmanager.data.database
+
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Triggers que mantienen exacta la tabla `task_counters`.
+ *
+ * Room no genera triggers personalizados, por lo que se instalan al abrir la base de
+ * datos con `CREATE TRIGGER IF NOT EXISTS`. Si la definición de un trigger cambia,
+ * debe cambiar también su nombre y eliminarse el anterior en la migración
+ * correspondiente.
+ *
+ * Requiere `PRAGMA recursive_triggers = ON` para que los reemplazos
+ * (`OnConflictStrategy.REPLACE`) disparen también los triggers de eliminación.
+ *
+ * Las tareas de `tasks_archive` siguen contando en todos los ámbitos: archivar
+ * una tarea (eliminarla de `tasks` e insertarla en el archivo, con sus
+ * etiquetas en `task_archive_tag`) no cambia los contadores.
+ *
+ * Las tareas marcadas como eliminadas (`deletedAt` no nulo) no cuentan en ningún
+ * ámbito: la lápida y la recuperación ajustan los contadores, y los cambios sobre
+ * una tarea ya eliminada se ignoran. Al purgarla, el borrado en cascada de sus
+ * etiquetas descuenta de nuevo los contadores de etiqueta, por lo que
+ * `task_counters_tasks_purge` los compensa antes del borrado.
+ */
+object TaskCounterTriggers {
+
+    private val TRIGGERS = listOf(
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_tasks_insert_v2
+        AFTER INSERT ON tasks
+        WHEN NEW.deletedAt IS NULL
+        BEGIN
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count)
+                VALUES ('global', 0, 0), ('status', NEW.status, 0), ('priority', NEW.priority, 0);
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count)
+                SELECT 'category', NEW.categoryId, 0 WHERE NEW.categoryId IS NOT NULL;
+            UPDATE task_counters SET count = count + 1
+                WHERE (scope = 'global' AND scopeId = 0)
+                OR (scope = 'status' AND scopeId = NEW.status)
+                OR (scope = 'priority' AND scopeId = NEW.priority)
+                OR (scope = 'category' AND scopeId = NEW.categoryId);
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_tasks_delete_v2
+        AFTER DELETE ON tasks
+        WHEN OLD.deletedAt IS NULL
+        BEGIN
+            UPDATE task_counters SET count = count - 1
+                WHERE (scope = 'global' AND scopeId = 0)
+                OR (scope = 'status' AND scopeId = OLD.status)
+                OR (scope = 'priority' AND scopeId = OLD.priority)
+                OR (scope = 'category' AND scopeId = OLD.categoryId);
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_tasks_update_v2
+        AFTER UPDATE OF status, priority, categoryId ON tasks
+        WHEN OLD.deletedAt IS NULL AND NEW.deletedAt IS NULL
+            AND (OLD.status != NEW.status
+                OR OLD.priority != NEW.priority
+                OR OLD.categoryId IS NOT NEW.categoryId)
+        BEGIN
+            UPDATE task_counters SET count = count - 1
+                WHERE (scope = 'status' AND scopeId = OLD.status)
+                OR (scope = 'priority' AND scopeId = OLD.priority)
+                OR (scope = 'category' AND scopeId = OLD.categoryId);
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count)
+                VALUES ('status', NEW.status, 0), ('priority', NEW.priority, 0);
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count)
+                SELECT 'category', NEW.categoryId, 0 WHERE NEW.categoryId IS NOT NULL;
+            UPDATE task_counters SET count = count + 1
+                WHERE (scope = 'status' AND scopeId = NEW.status)
+                OR (scope = 'priority' AND scopeId = NEW.priority)
+                OR (scope = 'category' AND scopeId = NEW.categoryId);
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_tasks_tombstone
+        AFTER UPDATE OF deletedAt ON tasks
+        WHEN OLD.deletedAt IS NULL AND NEW.deletedAt IS NOT NULL
+        BEGIN
+            UPDATE task_counters SET count = count - 1
+                WHERE (scope = 'global' AND scopeId = 0)
+                OR (scope = 'status' AND scopeId = OLD.status)
+                OR (scope = 'priority' AND scopeId = OLD.priority)
+                OR (scope = 'category' AND scopeId = OLD.categoryId)
+                OR (scope = 'tag' AND scopeId IN (SELECT tagId FROM task_tag_cross_ref WHERE taskId = NEW.id));
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_tasks_restore
+        AFTER UPDATE OF deletedAt ON tasks
+        WHEN OLD.deletedAt IS NOT NULL AND NEW.deletedAt IS NULL
+        BEGIN
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count)
+                VALUES ('global', 0, 0), ('status', NEW.status, 0), ('priority', NEW.priority, 0);
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count)
+                SELECT 'category', NEW.categoryId, 0 WHERE NEW.categoryId IS NOT NULL;
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count)
+                SELECT 'tag', tagId, 0 FROM task_tag_cross_ref WHERE taskId = NEW.id;
+            UPDATE task_counters SET count = count + 1
+                WHERE (scope = 'global' AND scopeId = 0)
+                OR (scope = 'status' AND scopeId = NEW.status)
+                OR (scope = 'priority' AND scopeId = NEW.priority)
+                OR (scope = 'category' AND scopeId = NEW.categoryId)
+                OR (scope = 'tag' AND scopeId IN (SELECT tagId FROM task_tag_cross_ref WHERE taskId = NEW.id));
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_tasks_purge
+        BEFORE DELETE ON tasks
+        WHEN OLD.deletedAt IS NOT NULL
+        BEGIN
+            UPDATE task_counters SET count = count + 1
+                WHERE scope = 'tag' AND scopeId IN (SELECT tagId FROM task_tag_cross_ref WHERE taskId = OLD.id);
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_archive_insert
+        AFTER INSERT ON tasks_archive
+        BEGIN
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count)
+                VALUES ('global', 0, 0), ('status', NEW.status, 0), ('priority', NEW.priority, 0);
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count)
+                SELECT 'category', NEW.categoryId, 0 WHERE NEW.categoryId IS NOT NULL;
+            UPDATE task_counters SET count = count + 1
+                WHERE (scope = 'global' AND scopeId = 0)
+                OR (scope = 'status' AND scopeId = NEW.status)
+                OR (scope = 'priority' AND scopeId = NEW.priority)
+                OR (scope = 'category' AND scopeId = NEW.categoryId);
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_archive_delete
+        AFTER DELETE ON tasks_archive
+        BEGIN
+            UPDATE task_counters SET count = count - 1
+                WHERE (scope = 'global' AND scopeId = 0)
+                OR (scope = 'status' AND scopeId = OLD.status)
+                OR (scope = 'priority' AND scopeId = OLD.priority)
+                OR (scope = 'category' AND scopeId = OLD.categoryId);
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_archive_tag_insert
+        AFTER INSERT ON task_archive_tag
+        BEGIN
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count) VALUES ('tag', NEW.tagId, 0);
+            UPDATE task_counters SET count = count + 1 WHERE scope = 'tag' AND scopeId = NEW.tagId;
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_archive_tag_delete
+        AFTER DELETE ON task_archive_tag
+        BEGIN
+            UPDATE task_counters SET count = count - 1 WHERE scope = 'tag' AND scopeId = OLD.tagId;
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_cross_ref_insert_v2
+        AFTER INSERT ON task_tag_cross_ref
+        WHEN NOT EXISTS (SELECT 1 FROM tasks WHERE id = NEW.taskId AND deletedAt IS NOT NULL)
+        BEGIN
+            INSERT OR IGNORE INTO task_counters (scope, scopeId, count) VALUES ('tag', NEW.tagId, 0);
+            UPDATE task_counters SET count = count + 1 WHERE scope = 'tag' AND scopeId = NEW.tagId;
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_cross_ref_delete_v2
+        AFTER DELETE ON task_tag_cross_ref
+        WHEN NOT EXISTS (SELECT 1 FROM tasks WHERE id = OLD.taskId AND deletedAt IS NOT NULL)
+        BEGIN
+            UPDATE task_counters SET count = count - 1 WHERE scope = 'tag' AND scopeId = OLD.tagId;
+        END
+        """
+    )
+
+    /**
+     * Crea los triggers de contadores que aún no existan.
+     *
+     * @param db Base de datos abierta.
+     */
+    fun install(db: SupportSQLiteDatabase) {
+        TRIGGERS.forEach { db.execSQL(it.trimIndent()) }
+    }
+}
@@ -0,0 +1,159 @@
+package com.ecci.taskmanager.data.database
+
+import androidx.collection.LruCache
+import androidx.sqlite.db.SimpleSQLiteQuery
+import androidx.sqlite.db.SupportSQLiteQuery
+import com.ecci.taskmanager.data.model.TaskListItem
+import com.ecci.taskmanager.data.model.TaskQuery
+
+/**
+ * Traduce un [TaskQuery] a una única consulta SQL parametrizada que devuelve
+ * filas de lista ([TaskListItem]).
+ *
+ * Los valores nunca se concatenan al SQL: solo la *forma* de la consulta (qué
+ * criterios están presentes, cuántos valores tiene cada `IN`, el orden y si
+ * incluye el archivo) determina el texto. Ese texto se guarda en caché por forma,
+ * de modo que consultas con la misma forma generan exactamente el mismo SQL y
+ * SQLite reutiliza la sentencia ya compilada de su caché de sentencias preparadas.
+ *
+ * Las tareas eliminadas (`deletedAt`) se excluyen siempre. Con
+ * [TaskQuery.includeArchived] se agrega `tasks_archive` con `UNION ALL`; las tareas
+ * archivadas no están en `tasks_fts`, así que una búsqueda de texto solo
+ * encuentra tareas de `tasks`.
+ */
+object TaskQueryCompiler {
+
+    /** Formas de consulta distintas que se conservan en caché. */
+    private const val SHAPE_CACHE_SIZE = 32
+
+    /** Columnas comunes a `tasks` y `tasks_archive` que usan la proyección y el orden. */
+    private const val BRANCH_COLUMNS =
+        "id, title, description, dueDate, priority, status, hasReminder, createdAt, completedAt"
+
+    private const val LIST_ITEM_COLUMNS =
+        "tasks.id, tasks.title, " +
+            "substr(tasks.description, 1, ${TaskListItem.DESCRIPTION_PREVIEW_LENGTH}) AS descriptionPreview, " +
+            "tasks.dueDate, tasks.priority, tasks.status, tasks.hasReminder"
+
+    private val sqlByShape = LruCache<Shape, String>(SHAPE_CACHE_SIZE)
+
+    /**
+     * Forma de una consulta: todo lo que afecta al texto SQL, sin los valores.
+     */
+    internal data class Shape(
+        val statusCount: Int,
+        val categoryCount: Int,
+        val priorityCount: Int,
+        val tagCount: Int,
+        val hasDueFrom: Boolean,
+        val hasDueTo: Boolean,
+        val hasText: Boolean,
+        val includeArchived: Boolean,
+        val sort: TaskQuery.Sort
+    )
+
+    /**
+     * Tabla consultada por una rama de la consulta.
+     *
+     * @property table Tabla de tareas.
+     * @property tagTable Tabla de vínculos con etiquetas de esa tabla.
+     * @property hasFts Indica si la tabla está indexada en `tasks_fts`.
+     */
+    private enum class Branch(val table: String, val tagTable: String, val hasFts: Boolean) {
+        ACTIVE("tasks", "task_tag_cross_ref", true),
+        ARCHIVED("tasks_archive", "task_archive_tag", false)
+    }
+
+    /**
+     * Compila la especificación en una consulta lista para un método `@RawQuery`.
+     *
+     * @param query Criterios de la consulta.
+     * @return Consulta con el SQL de su forma y los valores como argumentos.
+     */
+    fun compile(query: TaskQuery): SupportSQLiteQuery {
+        val matchQuery = query.text?.let { FtsQuery.prefixQuery(it) }
+        val shape = shapeOf(query, matchQuery)
+        val sql = sqlByShape.get(shape) ?: buildSql(shape).also { sqlByShape.put(shape, it) }
+
+        // Los argumentos se agregan en el mismo orden que los marcadores de buildSql
+        val args = ArrayList<Any>()
+        branchesOf(shape).forEach { branch -> addArgs(args, query, matchQuery, branch) }
+
+        return SimpleSQLiteQuery(sql, args.toArray())
+    }
+
+    internal fun shapeOf(query: TaskQuery, matchQuery: String? = query.text?.let { FtsQuery.prefixQuery(it) }): Shape {
+        return Shape(
+            statusCount = query.statuses.size,
+            categoryCount = query.categoryIds.size,
+            priorityCount = query.priorities.size,
+            tagCount = query.tagIds.size,
+            hasDueFrom = query.dueFrom != null,
+            hasDueTo = query.dueTo != null,
+            hasText = matchQuery != null,
+            includeArchived = query.includeArchived,
+            sort = query.sort
+        )
+    }
+
+    private fun branchesOf(shape: Shape): List<Branch> {
+        return if (shape.includeArchived) listOf(Branch.ACTIVE, Branch.ARCHIVED) else listOf(Branch.ACTIVE)
+    }
+
+    private fun addArgs(args: MutableList<Any>, query: TaskQuery, matchQuery: String?, branch: Branch) {
+        query.statuses.mapTo(args) { it.code }
+        args.addAll(query.categoryIds)
+        query.priorities.mapTo(args) { it.value }
+        args.addAll(query.tagIds)
+        query.dueFrom?.let { args.add(it) }
+        query.dueTo?.let { args.add(it) }
+        if (branch.hasFts) matchQuery?.let { args.add(it) }
+    }
+
+    private fun buildSql(shape: Shape): String {
+        val source = if (shape.includeArchived) {
+            "(" + branchesOf(shape).joinToString(" UNION ALL ") { branch ->
+                "SELECT $BRANCH_COLUMNS FROM ${branch.table} WHERE ${conditions(shape, branch)}"
+            } + ") AS tasks"
+        } else {
+            "tasks WHERE " + conditions(shape, Branch.ACTIVE)
+        }
+
+        return "SELECT $LIST_ITEM_COLUMNS FROM $source ORDER BY ${shape.sort.orderBy}"
+    }
+
+    private fun conditions(shape: Shape, branch: Branch): String {
+        val table = branch.table
+        val conditions = mutableListOf("$table.deletedAt IS NULL")
+        if (shape.statusCount > 0) {
+            conditions += "$table.status IN (${placeholders(shape.statusCount)})"
+        }
+        if (shape.categoryCount > 0) {
+            conditions += "$table.categoryId IN (${placeholders(shape.categoryCount)})"
+        }
+        if (shape.priorityCount > 0) {
+            conditions += "$table.priority IN (${placeholders(shape.priorityCount)})"
+        }
+        if (shape.tagCount > 0) {
+            conditions += "EXISTS (SELECT 1 FROM ${branch.tagTable} " +
+                "WHERE ${branch.tagTable}.taskId = $table.id " +
+                "AND ${branch.tagTable}.tagId IN (${placeholders(shape.tagCount)}))"
+        }
+        if (shape.hasDueFrom) {
+            conditions += "$table.dueDate >= ?"
+        }
+        if (shape.hasDueTo) {
+            conditions += "$table.dueDate <= ?"
+        }
+        if (shape.hasText) {
+            conditions += if (branch.hasFts) {
+                "$table.id IN (SELECT docid FROM tasks_fts WHERE tasks_fts MATCH ?)"
+            } else {
+                "0"
+            }
+        }
+        return conditions.joinToString(" AND ")
+    }
+
+    private fun placeholders(count: Int): String = List(count) { "?" }.joinToString(", ")
+}
@@ -0,0 +1,19 @@
+package com.ecci.taskmanager.data.model
+
+import androidx.room.Embedded
+
+/**
+ * Categoría junto con la cantidad de tareas que pertenecen a ella.
+ *
+ * Se obtiene para todas las categorías en una sola consulta
+ * (ver [com.ecci.taskmanager.data.dao.CategoryDao.getCategoriesWithTaskCount]).
+ *
+ * @property category Datos de la categoría.
+ * @property taskCount Número de tareas asociadas a la categoría.
+ */
+data class CategoryWithCount(
+    @Embedded
+    val category: Category,
+
+    val taskCount: Int
+)
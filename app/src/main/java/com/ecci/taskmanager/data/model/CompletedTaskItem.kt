@@ -0,0 +1,25 @@
+package com.ecci.taskmanager.data.model
+
+import androidx.room.TypeConverters
+import com.ecci.taskmanager.data.converters.DateConverter
+import java.util.Date
+
+/**
+ * Proyección de una tarea completada para la pantalla de historial.
+ *
+ * Proviene tanto de `tasks` como de `tasks_archive`; solo incluye las columnas
+ * que muestra cada fila y las que forman el cursor de paginación
+ * ([completedAt], [id]).
+ *
+ * @property id Identificador de la tarea.
+ * @property title Título de la tarea.
+ * @property priority Prioridad de la tarea.
+ * @property completedAt Fecha en la que se completó.
+ */
+@TypeConverters(DateConverter::class)
+data class CompletedTaskItem(
+    val id: Long,
+    val title: String,
+    val priority: Priority,
+    val completedAt: Date
+)
@@ -0,0 +1,91 @@
+package com.ecci.taskmanager.data.model
+
+import java.util.Locale
+
+/**
+ * Regla de repetición semanal de una tarea en forma compacta.
+ *
+ * Se obtiene a partir de las columnas de horario de [Task] (`recurringMask`,
+ * `startMinute`, `endMinute`), que ya se almacenan en esta forma.
+ *
+ * @property dayMask Días de la semana como máscara de bits: el bit `d - 1`
+ * corresponde al día ISO `d` (1 = lunes … 7 = domingo).
+ * @property startMinute Minuto del día en que comienza (0–1439).
+ * @property endMinute Minuto del día en que termina (0–1439).
+ */
+data class RecurrenceRule(
+    val dayMask: Int,
+    val startMinute: Int,
+    val endMinute: Int
+) {
+
+    /**
+     * Indica si la regla se repite el día ISO indicado.
+     *
+     * @param isoDay Día de la semana (1 = lunes … 7 = domingo).
+     */
+    fun occursOn(isoDay: Int): Boolean = dayMask and dayBit(isoDay) != 0
+
+    companion object {
+        /** Máscara con los siete días de la semana. */
+        const val ALL_DAYS = 0x7F
+
+        /** Minutos que tiene un día. */
+        const val MINUTES_PER_DAY = 24 * 60
+
+        /**
+         * Bit correspondiente a un día ISO (1 = lunes … 7 = domingo).
+         */
+        fun dayBit(isoDay: Int): Int = 1 shl (isoDay - 1)
+
+        /**
+         * Construye la regla de una tarea recurrente.
+         *
+         * @param task Tarea a interpretar.
+         * @return La regla, o `null` si la tarea no es recurrente, no tiene días
+         * o sus horas no son válidas.
+         */
+        fun fromTask(task: Task): RecurrenceRule? {
+            if (!task.isRecurring) return null
+            val mask = task.recurringMask and ALL_DAYS
+            if (mask == 0) return null
+            val start = task.startMinute?.takeIf { it in 0 until MINUTES_PER_DAY } ?: return null
+            val end = task.endMinute?.takeIf { it in 0 until MINUTES_PER_DAY } ?: return null
+            return RecurrenceRule(mask, start, end)
+        }
+
+        /**
+         * Convierte días ISO (1 = lunes … 7 = domingo) en máscara de bits.
+         */
+        fun maskOf(isoDays: Collection<Int>): Int {
+            var mask = 0
+            for (day in isoDays) {
+                if (day in 1..7) mask = mask or dayBit(day)
+            }
+            return mask
+        }
+
+        /**
+         * Convierte una hora "HH:mm" en minutos desde la medianoche.
+         *
+         * @return Los minutos, o `null` si el formato no es válido.
+         */
+        fun parseMinute(time: String?): Int? {
+            if (time == null) return null
+            val separator = time.indexOf(':')
+            if (separator <= 0) return null
+            val hour = time.substring(0, separator).toIntOrNull() ?: return null
+            val minute = time.substring(separator + 1).toIntOrNull() ?: return null
+            if (hour !in 0..23 || minute !in 0..59) return null
+            return hour * 60 + minute
+        }
+
+        /**
+         * Convierte minutos desde la medianoche a "HH:mm".
+         *
+         * Usa [Locale.ROOT] para que los dígitos sean siempre ASCII y [parseMinute]
+         * pueda leer el resultado con cualquier configuración regional.
+         */
+        fun formatMinute(minute: Int): String = String.format(Locale.ROOT, "%02d:%02d", minute / 60, minute % 60)
+    }
+}
@@ -1,6 +1,9 @@
 package com.ecci.taskmanager.data.model
 
+import androidx.room.DatabaseView
 import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
 import androidx.room.PrimaryKey
 
 /**
@@ -48,14 +51,86 @@ data class Tag(
  * definida por esta clase, que utiliza como claves primarias combinadas
  * los identificadores de la tarea y de la etiqueta.
  *
+ * Las claves foráneas eliminan en cascada los vínculos al borrar una tarea o una
+ * etiqueta. El índice sobre `tagId` cubre las búsquedas "tareas de una etiqueta";
+ * las búsquedas por tarea usan el prefijo de la clave primaria.
+ *
  * @property taskId Identificador de la tarea relacionada.
  * @property tagId Identificador de la etiqueta asociada.
  */
 @Entity(
     tableName = "task_tag_cross_ref",
-    primaryKeys = ["taskId", "tagId"]
+    primaryKeys = ["taskId", "tagId"],
+    foreignKeys = [
+        ForeignKey(
+            entity = Task::class,
+            parentColumns = ["id"],
+            childColumns = ["taskId"],
+            onDelete = ForeignKey.CASCADE
+        ),
+        ForeignKey(
+            entity = Tag::class,
+            parentColumns = ["id"],
+            childColumns = ["tagId"],
+            onDelete = ForeignKey.CASCADE
+        )
+    ],
+    indices = [Index(value = ["tagId"])]
 )
 data class TaskTagCrossRef(
     val taskId: Long,
     val tagId: Long
 )
+
+/**
+ * Vínculo entre una tarea archivada ([TaskArchive]) y una etiqueta.
+ *
+ * Al archivar una tarea sus filas de [TaskTagCrossRef] se copian aquí antes de
+ * eliminarla de `tasks`, para que el borrado en cascada no pierda sus etiquetas.
+ * Las claves foráneas eliminan el vínculo al borrar la tarea archivada o la etiqueta.
+ *
+ * @property taskId Identificador de la tarea archivada.
+ * @property tagId Identificador de la etiqueta asociada.
+ */
+@Entity(
+    tableName = "task_archive_tag",
+    primaryKeys = ["taskId", "tagId"],
+    foreignKeys = [
+        ForeignKey(
+            entity = TaskArchive::class,
+            parentColumns = ["id"],
+            childColumns = ["taskId"],
+            onDelete = ForeignKey.CASCADE
+        ),
+        ForeignKey(
+            entity = Tag::class,
+            parentColumns = ["id"],
+            childColumns = ["tagId"],
+            onDelete = ForeignKey.CASCADE
+        )
+    ],
+    indices = [Index(value = ["tagId"])]
+)
+data class TaskArchiveTagCrossRef(
+    val taskId: Long,
+    val tagId: Long
+)
+
+/**
+ * Vista con los vínculos tarea–etiqueta de `tasks` y de `tasks_archive`.
+ *
+ * Los IDs no se repiten entre ambas tablas (el archivo conserva el ID original y
+ * `tasks` usa AUTOINCREMENT), así que [TaskWithTags] puede resolver las etiquetas
+ * de cualquier fila a través de esta vista.
+ *
+ * @property taskId Identificador de la tarea (activa o archivada).
+ * @property tagId Identificador de la etiqueta asociada.
+ */
+@DatabaseView(
+    viewName = "task_tag_refs",
+    value = "SELECT taskId, tagId FROM task_tag_cross_ref UNION ALL SELECT taskId, tagId FROM task_archive_tag"
+)
+data class TaskTagRef(
+    val taskId: Long,
+    val tagId: Long
+)
@@ -1,6 +1,8 @@
 package com.ecci.taskmanager.data.model
 
 import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
 import androidx.room.PrimaryKey
 import androidx.room.TypeConverters
 import com.ecci.taskmanager.data.converters.DateConverter
@@ -28,11 +30,40 @@ import java.util.Date
  * @property hasReminder Indica si la tarea tiene activado un recordatorio.
  * @property reminderTime Hora exacta en la que debe generarse el recordatorio.
  * @property isRecurring Indica si la tarea se repite en determinados días.
- * @property recurringDays Días de repetición representados como una cadena (por ejemplo, "1,2,3" → Lunes, Martes, Miércoles).
- * @property startTime Hora de inicio del intervalo de la tarea (por ejemplo, "08:00").
- * @property endTime Hora de finalización del intervalo de la tarea (por ejemplo, "10:00").
+ * @property recurringMask Días de repetición como máscara de bits: el bit `d - 1` es el día ISO `d`
+ * (1 = lunes … 7 = domingo); 0 si no se repite (ver [RecurrenceRule.dayBit]).
+ * @property startMinute Inicio del intervalo de la tarea en minutos desde la medianoche (por ejemplo, 480 = 08:00).
+ * @property endMinute Fin del intervalo de la tarea en minutos desde la medianoche (por ejemplo, 600 = 10:00).
+ * @property deletedAt Fecha en la que el usuario eliminó la tarea; `null` si sigue activa.
+ * Las tareas eliminadas se conservan como lápidas hasta su purga.
+ *
+ * Los índices compuestos siguen los pares WHERE/ORDER BY de [com.ecci.taskmanager.data.dao.TaskDao],
+ * de modo que cada filtro se resuelve con un recorrido de índice y sin ordenamiento temporal.
+ * Al eliminar una categoría, sus tareas quedan sin categoría (`ON DELETE SET NULL`).
+ * Cualquier cambio aquí debe acompañarse de una migración en `Migrations.kt`.
  */
-@Entity(tableName = "tasks")
+@Entity(
+    tableName = "tasks",
+    foreignKeys = [
+        ForeignKey(
+            entity = Category::class,
+            parentColumns = ["id"],
+            childColumns = ["categoryId"],
+            onDelete = ForeignKey.SET_NULL
+        )
+    ],
+    indices = [
+        Index(value = ["createdAt"]),
+        Index(value = ["status", "createdAt"]),
+        Index(value = ["status", "dueDate", "priority"]),
+        Index(value = ["status", "completedAt"]),
+        Index(value = ["categoryId", "createdAt"]),
+        Index(value = ["priority", "createdAt"]),
+        Index(value = ["hasReminder", "reminderTime"]),
+        Index(value = ["deletedAt"]),
+        Index(value = ["recurringMask", "startMinute", "endMinute"])
+    ]
+)
 @TypeConverters(DateConverter::class)
 data class Task(
     @PrimaryKey(autoGenerate = true)
@@ -61,11 +92,13 @@ data class Task(
     // NUEVAS PROPIEDADES PARA HORARIOS
     val isRecurring: Boolean = false,
 
-    val recurringDays: String? = null, // "1,2,3" (Lunes, Martes, Miércoles)
+    val recurringMask: Int = 0, // 0b0000111 (Lunes, Martes, Miércoles)
+
+    val startMinute: Int? = null, // 480 = 08:00
 
-    val startTime: String? = null, // "08:00"
+    val endMinute: Int? = null, // 600 = 10:00
 
-    val endTime: String? = null // "10:00"
+    val deletedAt: Date? = null
 ) {
 
     /**
@@ -91,6 +124,20 @@ data class Task(
         return dueDate?.before(Date()) == true && status != TaskStatus.COMPLETED
     }
 
+    /**
+     * Recalcula el estado vencido según la fecha límite actual: una tarea
+     * [TaskStatus.OVERDUE] sin fecha límite o con fecha futura vuelve a
+     * [TaskStatus.PENDING].
+     *
+     * @param now Fecha actual en milisegundos.
+     * @return La misma tarea, o una copia con el estado corregido.
+     */
+    fun withCurrentStatus(now: Long = System.currentTimeMillis()): Task {
+        if (status != TaskStatus.OVERDUE) return this
+        val stillOverdue = dueDate?.let { it.time < now } ?: false
+        return if (stillOverdue) this else copy(status = TaskStatus.PENDING)
+    }
+
     /**
      * Marca la tarea como completada.
      *
@@ -124,6 +171,11 @@ enum class Priority(val value: Int, val displayName: String) {
     LOW(1, "Baja");
 
     companion object {
+        /** Tabla de búsqueda indexada por [value] para conversiones en O(1). */
+        private val BY_VALUE: Array<Priority?> = arrayOfNulls<Priority>(4).also { table ->
+            values().forEach { table[it.value] = it }
+        }
+
         /**
          * Obtiene la prioridad correspondiente a un valor entero.
          *
@@ -131,7 +183,7 @@ enum class Priority(val value: Int, val displayName: String) {
          * @return Prioridad asociada o [MEDIUM] si el valor no coincide.
          */
         fun fromValue(value: Int): Priority {
-            return values().find { it.value == value } ?: MEDIUM
+            return BY_VALUE.getOrNull(value) ?: MEDIUM
         }
     }
 }
@@ -143,13 +195,21 @@ enum class Priority(val value: Int, val displayName: String) {
  * y determinar si una tarea está pendiente, completada o vencida.
  *
  * @property value Cadena que identifica el estado internamente.
+ * @property code Código entero con el que se almacena el estado en la base de datos
+ * (0 = PENDING, 1 = COMPLETED, 2 = OVERDUE). Las consultas SQL usan estos literales.
  */
-enum class TaskStatus(val value: String) {
-    PENDING("pending"),
-    COMPLETED("completed"),
-    OVERDUE("overdue");
+enum class TaskStatus(val value: String, val code: Int) {
+    PENDING("pending", 0),
+    COMPLETED("completed", 1),
+    OVERDUE("overdue", 2);
 
     companion object {
+        /** Tabla de búsqueda indexada por [code]. */
+        private val BY_CODE: Array<TaskStatus> = values().sortedBy { it.code }.toTypedArray()
+
+        /** Mapa de búsqueda por [value]. */
+        private val BY_VALUE: Map<String, TaskStatus> = values().associateBy { it.value }
+
         /**
          * Obtiene el estado de tarea correspondiente a una cadena.
          *
@@ -157,7 +217,17 @@ enum class TaskStatus(val value: String) {
          * @return Estado asociado o [PENDING] si no coincide.
          */
         fun fromValue(value: String): TaskStatus {
-            return values().find { it.value == value } ?: PENDING
+            return BY_VALUE[value] ?: PENDING
+        }
+
+        /**
+         * Obtiene el estado de tarea correspondiente a su código almacenado.
+         *
+         * @param code Código entero (0–2).
+         * @return Estado asociado o [PENDING] si el código no coincide.
+         */
+        fun fromCode(code: Int): TaskStatus {
+            return BY_CODE.getOrNull(code) ?: PENDING
         }
     }
 }
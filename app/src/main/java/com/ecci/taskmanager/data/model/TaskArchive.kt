@@ -0,0 +1,51 @@
+package com.ecci.taskmanager.data.model
+
+import androidx.room.Embedded
+import androidx.room.Entity
+import androidx.room.ForeignKey
+import androidx.room.Index
+import androidx.room.RoomWarnings
+import androidx.room.TypeConverters
+import com.ecci.taskmanager.data.converters.DateConverter
+
+/**
+ * Tarea completada que fue movida al archivo (`tasks_archive`).
+ *
+ * La tabla tiene las mismas columnas que `tasks`, de modo que ambas pueden
+ * combinarse con `UNION ALL` en las consultas de historial. Las tareas se
+ * archivan en segundo plano un tiempo después de completarse
+ * (ver [com.ecci.taskmanager.work.TaskArchiveWorker]), para que `tasks` solo
+ * contenga el trabajo activo y reciente. Sus etiquetas se conservan en
+ * [TaskArchiveTagCrossRef].
+ *
+ * Como en `tasks`, eliminar una categoría deja sin categoría (SET NULL) a sus
+ * tareas archivadas.
+ *
+ * @property task Datos de la tarea archivada; conserva su ID original.
+ */
+// La clave primaria y los índices de Task se redeclaran aquí; los de la entidad embebida no aplican al archivo
+@SuppressWarnings(
+    RoomWarnings.PRIMARY_KEY_FROM_EMBEDDED_IS_DROPPED,
+    RoomWarnings.INDEX_FROM_EMBEDDED_ENTITY_IS_DROPPED
+)
+@Entity(
+    tableName = "tasks_archive",
+    primaryKeys = ["id"],
+    foreignKeys = [
+        ForeignKey(
+            entity = Category::class,
+            parentColumns = ["id"],
+            childColumns = ["categoryId"],
+            onDelete = ForeignKey.SET_NULL
+        )
+    ],
+    indices = [
+        Index(value = ["completedAt"]),
+        Index(value = ["categoryId"])
+    ]
+)
+@TypeConverters(DateConverter::class)
+data class TaskArchive(
+    @Embedded
+    val task: Task
+)
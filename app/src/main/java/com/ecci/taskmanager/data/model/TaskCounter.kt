@@ -0,0 +1,32 @@
+package com.ecci.taskmanager.data.model
+
+import androidx.room.Entity
+
+/**
+ * Contador materializado de tareas, mantenido por triggers de SQLite.
+ *
+ * En lugar de ejecutar `COUNT(*)` sobre `tasks` cada vez que cambia una fila,
+ * cada inserción, actualización o eliminación ajusta estos contadores, de modo que
+ * leer un conteo es una búsqueda por clave primaria y los observadores solo se
+ * invalidan cuando cambia esta tabla pequeña.
+ *
+ * Ámbitos utilizados (`scope` / `scopeId`):
+ * - `global` / 0: total de tareas.
+ * - `status` / [TaskStatus.code]: tareas por estado.
+ * - `priority` / [Priority.value]: tareas por prioridad.
+ * - `category` / id de la categoría: tareas por categoría.
+ * - `tag` / id de la etiqueta: tareas por etiqueta.
+ *
+ * @property scope Tipo de agrupación del contador.
+ * @property scopeId Identificador dentro del ámbito.
+ * @property count Número de tareas en ese ámbito.
+ */
+@Entity(
+    tableName = "task_counters",
+    primaryKeys = ["scope", "scopeId"]
+)
+data class TaskCounter(
+    val scope: String,
+    val scopeId: Long,
+    val count: Int
+)
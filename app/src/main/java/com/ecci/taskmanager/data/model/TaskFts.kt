@@ -0,0 +1,42 @@
+package com.ecci.taskmanager.data.model
+
+import androidx.room.Embedded
+import androidx.room.Entity
+import androidx.room.Fts4
+import androidx.room.FtsOptions
+
+/**
+ * Índice de texto completo sobre el título y la descripción de las tareas.
+ *
+ * Es una tabla FTS de **contenido externo**: no duplica el texto, sino que
+ * apunta a la tabla `tasks` y Room la mantiene sincronizada mediante triggers.
+ * El tokenizador `unicode61` con `remove_diacritics=1` ignora tildes y mayúsculas,
+ * de modo que "reunion" encuentra "Reunión".
+ *
+ * @property title Título indexado de la tarea.
+ * @property description Descripción indexada de la tarea.
+ */
+@Entity(tableName = "tasks_fts")
+@Fts4(
+    contentEntity = Task::class,
+    tokenizer = FtsOptions.TOKENIZER_UNICODE61,
+    tokenizerArgs = ["remove_diacritics=1"]
+)
+data class TaskFts(
+    val title: String,
+    val description: String?
+)
+
+/**
+ * Resultado de una búsqueda de texto completo.
+ *
+ * @property task Tarea encontrada.
+ * @property matchInfo Estadísticas de coincidencia devueltas por `matchinfo(tasks_fts, 'pcnalx')`,
+ * utilizadas para calcular la relevancia BM25 del resultado.
+ */
+data class TaskSearchResult(
+    @Embedded
+    val task: Task,
+
+    val matchInfo: ByteArray
+)
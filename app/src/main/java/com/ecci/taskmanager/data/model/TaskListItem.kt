@@ -0,0 +1,45 @@
+package com.ecci.taskmanager.data.model
+
+import androidx.room.TypeConverters
+import com.ecci.taskmanager.data.converters.DateConverter
+import java.util.Date
+
+/**
+ * Proyección reducida de [Task] para las pantallas de lista.
+ *
+ * Solo contiene las columnas que muestra cada fila; la descripción llega
+ * truncada desde SQLite (ver [DESCRIPTION_PREVIEW_LENGTH]). Así cada fila ocupa
+ * menos espacio en el CursorWindow y se evita copiar los campos de horario y
+ * recordatorio. La tarea completa se carga solo en el detalle.
+ *
+ * @property id Identificador de la tarea.
+ * @property title Título de la tarea.
+ * @property descriptionPreview Primeros caracteres de la descripción, si existe.
+ * @property dueDate Fecha de vencimiento.
+ * @property priority Prioridad de la tarea.
+ * @property status Estado actual de la tarea.
+ * @property hasReminder Indica si la tarea tiene un recordatorio activo.
+ */
+@TypeConverters(DateConverter::class)
+data class TaskListItem(
+    val id: Long,
+    val title: String,
+    val descriptionPreview: String?,
+    val dueDate: Date?,
+    val priority: Priority,
+    val status: TaskStatus,
+    val hasReminder: Boolean
+) {
+
+    /**
+     * Determina si la tarea está vencida (misma regla que [Task.isOverdue]).
+     */
+    fun isOverdue(): Boolean {
+        return dueDate?.before(Date()) == true && status != TaskStatus.COMPLETED
+    }
+
+    companion object {
+        /** Caracteres de la descripción que se copian para la vista previa. */
+        const val DESCRIPTION_PREVIEW_LENGTH = 120
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecci.taskmanager.data.model
+
+/**
+ * Una ocurrencia concreta de una tarea recurrente.
+ *
+ * @property taskId Identificador de la tarea.
+ * @property title Título de la tarea.
+ * @property start Inicio de la ocurrencia en milisegundos.
+ * @property end Fin de la ocurrencia en milisegundos.
+ */
+data class TaskOccurrence(
+    val taskId: Long,
+    val title: String,
+    val start: Long,
+    val end: Long
+)
@@ -0,0 +1,44 @@
+package com.ecci.taskmanager.data.model
+
+/**
+ * Especificación de una consulta de tareas con varios criterios combinados.
+ *
+ * Cada criterio vacío o nulo no filtra. Los conjuntos se combinan con `OR` dentro
+ * del criterio (por ejemplo, cualquiera de las prioridades) y los criterios entre
+ * sí con `AND`. Se traduce a una sola consulta SQL parametrizada con
+ * [com.ecci.taskmanager.data.database.TaskQueryCompiler].
+ *
+ * @property statuses Estados aceptados.
+ * @property categoryIds Categorías aceptadas.
+ * @property priorities Prioridades aceptadas.
+ * @property tagIds La tarea debe tener al menos una de estas etiquetas.
+ * @property dueFrom Inicio del rango de vencimiento en milisegundos (inclusive).
+ * @property dueTo Fin del rango de vencimiento en milisegundos (inclusive).
+ * @property text Texto a buscar en título y descripción (índice `tasks_fts`).
+ * @property includeArchived Incluye las tareas de `tasks_archive`.
+ * @property sort Orden del resultado.
+ */
+data class TaskQuery(
+    val statuses: Set<TaskStatus> = emptySet(),
+    val categoryIds: Set<Long> = emptySet(),
+    val priorities: Set<Priority> = emptySet(),
+    val tagIds: Set<Long> = emptySet(),
+    val dueFrom: Long? = null,
+    val dueTo: Long? = null,
+    val text: String? = null,
+    val includeArchived: Boolean = false,
+    val sort: Sort = Sort.CREATED_DESC
+) {
+
+    /**
+     * Órdenes disponibles; cada uno coincide con un índice de `tasks`.
+     *
+     * @property orderBy Cláusula `ORDER BY` correspondiente.
+     */
+    enum class Sort(val orderBy: String) {
+        CREATED_DESC("tasks.createdAt DESC"),
+        DUE_DATE_ASC("tasks.dueDate ASC, tasks.priority DESC"),
+        PRIORITY_DESC("tasks.priority DESC, tasks.createdAt DESC"),
+        COMPLETED_DESC("tasks.completedAt DESC")
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecci.taskmanager.data.model
+
+/**
+ * Resumen de las estadísticas de tareas calculado en una sola consulta SQL.
+ *
+ * Reemplaza la observación de varios contadores independientes. Los totales por
+ * estado y prioridad se leen de la tabla `task_counters`, que mantienen los
+ * triggers e incluye las tareas archivadas; las tareas vencidas y las del día se
+ * cuentan con una agregación sobre las filas no completadas de `tasks`. Al ser
+ * una sola consulta, todos los valores corresponden al mismo estado de la base.
+ *
+ * @property totalCount Total de tareas registradas, incluidas las archivadas.
+ * @property completedCount Tareas completadas, incluidas las archivadas.
+ * @property pendingCount Tareas en estado pendiente (sin contar las marcadas como vencidas).
+ * @property overdueCount Tareas no completadas cuya fecha de vencimiento ya pasó.
+ * @property todayCount Tareas no completadas que vencen hoy.
+ * @property highPriorityCount Tareas con prioridad alta, incluidas las archivadas.
+ * @property mediumPriorityCount Tareas con prioridad media, incluidas las archivadas.
+ * @property lowPriorityCount Tareas con prioridad baja, incluidas las archivadas.
+ */
+data class TaskStatsSnapshot(
+    val totalCount: Int,
+    val completedCount: Int,
+    val pendingCount: Int,
+    val overdueCount: Int,
+    val todayCount: Int,
+    val highPriorityCount: Int,
+    val mediumPriorityCount: Int,
+    val lowPriorityCount: Int
+) {
+    /** Porcentaje de tareas completadas sobre el total (0–100). */
+    val completionRate: Int
+        get() = if (totalCount > 0) completedCount * 100 / totalCount else 0
+}
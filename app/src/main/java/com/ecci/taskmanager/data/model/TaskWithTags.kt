@@ -0,0 +1,32 @@
+package com.ecci.taskmanager.data.model
+
+import androidx.room.Embedded
+import androidx.room.Relation
+import androidx.room.TypeConverters
+import com.ecci.taskmanager.data.converters.DateConverter
+
+/**
+ * Fila de la lista de tareas junto con los IDs de sus etiquetas.
+ *
+ * Room carga la relación con una sola consulta `IN (...)` sobre la vista
+ * `task_tag_refs` por cada página, sin importar cuántas filas tenga; la vista
+ * incluye las etiquetas de las tareas archivadas (ver [TaskTagRef]).
+ * Solo se leen los IDs: las etiquetas se resuelven en memoria con un mapa
+ * id → [Tag] que la UI mantiene a partir de la lista completa de etiquetas.
+ *
+ * @property task Proyección de la tarea mostrada en la lista.
+ * @property tagIds IDs de las etiquetas asociadas a la tarea.
+ */
+@TypeConverters(DateConverter::class)
+data class TaskWithTags(
+    @Embedded
+    val task: TaskListItem,
+
+    @Relation(
+        parentColumn = "id",
+        entityColumn = "taskId",
+        entity = TaskTagRef::class,
+        projection = ["tagId"]
+    )
+    val tagIds: List<Long>
+)
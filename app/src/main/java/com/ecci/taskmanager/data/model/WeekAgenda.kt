@@ -0,0 +1,38 @@
+package com.ecci.taskmanager.data.model
+
+/**
+ * Una entrada de la agenda: una ocurrencia de una tarea recurrente o una tarea
+ * con fecha de vencimiento.
+ *
+ * @property taskId Identificador de la tarea.
+ * @property title Título de la tarea.
+ * @property start Inicio (ocurrencia) o vencimiento (tarea con fecha), en milisegundos.
+ * @property end Fin de la ocurrencia en milisegundos; `null` para tareas con fecha.
+ * @property priority Prioridad de la tarea.
+ */
+data class AgendaEntry(
+    val taskId: Long,
+    val title: String,
+    val start: Long,
+    val end: Long?,
+    val priority: Priority
+) {
+    /** Indica si la entrada proviene de un horario recurrente. */
+    val isRecurring: Boolean get() = end != null
+}
+
+/**
+ * Agenda de una semana ISO (lunes a domingo).
+ *
+ * @property weekStart Inicio del lunes local, en milisegundos.
+ * @property dayStarts Inicio de cada día de la semana (7 valores).
+ * @property days Entradas de cada día, ordenadas por hora de inicio.
+ */
+data class WeekAgenda(
+    val weekStart: Long,
+    val dayStarts: List<Long>,
+    val days: List<List<AgendaEntry>>
+) {
+    /** Indica si la semana no tiene ninguna entrada. */
+    fun isEmpty(): Boolean = days.all { it.isEmpty() }
+}
@@ -0,0 +1,76 @@
+package com.ecci.taskmanager.data.repository
+
+import com.ecci.taskmanager.data.model.Priority
+import com.ecci.taskmanager.data.model.Task
+import java.util.Date
+
+/**
+ * Lote de una inserción masiva ya depurado (ver [TaskRepository.bulkInsertTasks]).
+ *
+ * @property tasks Tareas válidas y sin repetir, en el orden recibido.
+ * @property initialProgress Progreso antes de insertar: las tareas descartadas
+ * ya cuentan como procesadas.
+ */
+internal class BulkInsertBatch private constructor(
+    val tasks: List<Task>,
+    val initialProgress: BulkInsertProgress
+) {
+
+    /**
+     * Datos visibles que identifican a una tarea sin ID dentro del lote.
+     *
+     * No incluye `createdAt` ni el estado: cada instancia toma la fecha de creación
+     * del momento en que se construye, así que dos importaciones del mismo archivo
+     * nunca coincidirían en ella.
+     */
+    private data class ContentKey(
+        val title: String,
+        val description: String?,
+        val dueDate: Date?,
+        val categoryId: Long?,
+        val priority: Priority,
+        val isRecurring: Boolean,
+        val recurringMask: Int,
+        val startMinute: Int?,
+        val endMinute: Int?
+    )
+
+    companion object {
+
+        /**
+         * Descarta las tareas inválidas y las repetidas de [tasks].
+         *
+         * Una tarea con ID explícito se compara por su ID (es la misma fila); sin él,
+         * por sus datos visibles ([ContentKey]).
+         */
+        fun of(tasks: List<Task>): BulkInsertBatch {
+            val valid = tasks.filter { it.isValid() }
+            val unique = valid.distinctBy { task -> if (task.id != 0L) task.id else contentKey(task) }
+            val invalid = tasks.size - valid.size
+            val duplicates = valid.size - unique.size
+
+            return BulkInsertBatch(
+                tasks = unique,
+                initialProgress = BulkInsertProgress(
+                    total = tasks.size,
+                    processed = invalid + duplicates,
+                    inserted = 0,
+                    invalid = invalid,
+                    duplicates = duplicates
+                )
+            )
+        }
+
+        private fun contentKey(task: Task) = ContentKey(
+            title = task.title.trim(),
+            description = task.description,
+            dueDate = task.dueDate,
+            categoryId = task.categoryId,
+            priority = task.priority,
+            isRecurring = task.isRecurring,
+            recurringMask = task.recurringMask,
+            startMinute = task.startMinute,
+            endMinute = task.endMinute
+        )
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecci.taskmanager.data.repository
+
+/**
+ * Progreso de una inserción masiva de tareas (ver [TaskRepository.bulkInsertTasks]).
+ *
+ * @property total Cantidad de tareas recibidas.
+ * @property processed Tareas ya procesadas (insertadas, inválidas o duplicadas).
+ * @property inserted Tareas escritas en la base de datos.
+ * @property invalid Tareas descartadas por no pasar la validación.
+ * @property duplicates Tareas descartadas por estar repetidas dentro del lote.
+ */
+data class BulkInsertProgress(
+    val total: Int,
+    val processed: Int,
+    val inserted: Int,
+    val invalid: Int,
+    val duplicates: Int
+) {
+    /** Indica si ya se procesaron todas las tareas. */
+    val isComplete: Boolean
+        get() = processed == total
+
+    /** Porcentaje procesado (0–100). */
+    val percent: Int
+        get() = if (total == 0) 100 else processed * 100 / total
+}
@@ -1,9 +1,10 @@
 package com.ecci.taskmanager.data.repository
 
-import androidx.lifecycle.LiveData
 import com.ecci.taskmanager.data.dao.CategoryDao
 import com.ecci.taskmanager.data.model.Category
+import com.ecci.taskmanager.data.model.CategoryWithCount
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.withContext
 import javax.inject.Inject
 import javax.inject.Singleton
@@ -26,13 +27,17 @@ class CategoryRepository @Inject constructor(
 ) {
 
     /** Lista en tiempo real de todas las categorías almacenadas. */
-    val allCategories: LiveData<List<Category>> = categoryDao.getAllCategories()
+    val allCategories: Flow<List<Category>> = categoryDao.getAllCategories().distinctConflated()
 
     /** Lista en tiempo real de las categorías predefinidas. */
-    val predefinedCategories: LiveData<List<Category>> = categoryDao.getPredefinedCategories()
+    val predefinedCategories: Flow<List<Category>> = categoryDao.getPredefinedCategories().distinctConflated()
 
     /** Lista en tiempo real de las categorías personalizadas por el usuario. */
-    val customCategories: LiveData<List<Category>> = categoryDao.getCustomCategories()
+    val customCategories: Flow<List<Category>> = categoryDao.getCustomCategories().distinctConflated()
+
+    /** Todas las categorías con su número de tareas, desde una única consulta. */
+    val categoriesWithTaskCount: Flow<List<CategoryWithCount>> =
+        categoryDao.getCategoriesWithTaskCount().distinctConflated()
 
     /**
      * Inserta una nueva categoría en la base de datos.
@@ -92,20 +97,20 @@ class CategoryRepository @Inject constructor(
      * Utiliza una consulta SQL con la cláusula LIKE.
      *
      * @param query Texto a buscar en los nombres de las categorías.
-     * @return Lista reactiva ([LiveData]) con los resultados filtrados.
+     * @return Lista reactiva ([Flow]) con los resultados filtrados.
      */
-    fun searchCategories(query: String): LiveData<List<Category>> {
-        return categoryDao.searchCategories(query)
+    fun searchCategories(query: String): Flow<List<Category>> {
+        return categoryDao.searchCategories(query).distinctConflated()
     }
 
     /**
      * Obtiene la cantidad de tareas asociadas a una categoría específica.
      *
      * @param categoryId Identificador de la categoría.
-     * @return [LiveData] con el número total de tareas vinculadas.
+     * @return [Flow] con el número total de tareas vinculadas.
      */
-    fun getTaskCountByCategory(categoryId: Long): LiveData<Int> {
-        return categoryDao.getTaskCountByCategory(categoryId)
+    fun getTaskCountByCategory(categoryId: Long): Flow<Int> {
+        return categoryDao.getTaskCountByCategory(categoryId).distinctConflated()
     }
 
     /**
@@ -0,0 +1,105 @@
+package com.ecci.taskmanager.data.repository
+
+import androidx.paging.PagingSource
+import androidx.paging.PagingState
+import androidx.room.InvalidationTracker
+import com.ecci.taskmanager.data.dao.TaskDao
+import com.ecci.taskmanager.data.database.AppDatabase
+import com.ecci.taskmanager.data.model.CompletedTaskItem
+
+/**
+ * Posición en el historial de tareas completadas: el borde de una página ya cargada.
+ *
+ * @property completedAt Fecha de finalización de la fila, en milisegundos.
+ * @property id ID de la fila (desempata tareas completadas en el mismo instante).
+ */
+data class HistoryCursor(val completedAt: Long, val id: Long) {
+
+    companion object {
+        /** Cursor anterior a cualquier fila: carga la primera página. */
+        val START = HistoryCursor(Long.MAX_VALUE, Long.MAX_VALUE)
+
+        /** Cursor inmediatamente anterior a [item], de modo que la página empiece por él. */
+        fun before(item: CompletedTaskItem) = HistoryCursor(item.completedAt.time, item.id + 1)
+
+        /** Cursor de la propia fila [item]. */
+        fun of(item: CompletedTaskItem) = HistoryCursor(item.completedAt.time, item.id)
+    }
+}
+
+/**
+ * [PagingSource] del historial de tareas completadas con paginación por cursor.
+ *
+ * A diferencia de las fuentes de Room (basadas en `LIMIT/OFFSET`), cada página se
+ * pide a partir de la fila del borde de la página vecina (ver
+ * [TaskDao.getCompletedHistoryPage] y [TaskDao.getCompletedHistoryPageAfter]),
+ * así que el costo por página es constante aunque el historial abarque años.
+ *
+ * Al invalidarse (cambios en `tasks` o `tasks_archive`) la lista se recarga desde
+ * la fila visible ([getRefreshKey]) y las más recientes se vuelven a cargar hacia atrás.
+ */
+class CompletedHistoryPagingSource(
+    private val database: AppDatabase,
+    private val taskDao: TaskDao
+) : PagingSource<HistoryCursor, CompletedTaskItem>() {
+
+    private val observer = object : InvalidationTracker.Observer("tasks", "tasks_archive") {
+        override fun onInvalidated(tables: Set<String>) {
+            invalidate()
+        }
+    }
+
+    init {
+        // Se registra al crear la fuente para no perder cambios anteriores a la primera carga
+        database.invalidationTracker.addObserver(observer)
+        registerInvalidatedCallback {
+            database.invalidationTracker.removeObserver(observer)
+        }
+    }
+
+    override suspend fun load(params: LoadParams<HistoryCursor>): LoadResult<HistoryCursor, CompletedTaskItem> {
+        return try {
+            if (params is LoadParams.Prepend) {
+                loadNewer(params.key, params.loadSize)
+            } else {
+                loadOlder(params.key ?: HistoryCursor.START, params.loadSize)
+            }
+        } catch (e: Exception) {
+            LoadResult.Error(e)
+        }
+    }
+
+    /** Filas más antiguas que [cursor], de la más reciente a la más antigua. */
+    private suspend fun loadOlder(cursor: HistoryCursor, loadSize: Int): LoadResult<HistoryCursor, CompletedTaskItem> {
+        val items = taskDao.getCompletedHistoryPage(cursor.completedAt, cursor.id, loadSize)
+        return LoadResult.Page(
+            data = items,
+            prevKey = when {
+                cursor == HistoryCursor.START -> null
+                // Nada es más antiguo que el cursor: hacia atrás se carga desde el propio cursor
+                items.isEmpty() -> HistoryCursor(cursor.completedAt, cursor.id - 1)
+                else -> HistoryCursor.of(items.first())
+            },
+            nextKey = if (items.size < loadSize) null else HistoryCursor.of(items.last())
+        )
+    }
+
+    /** Filas más recientes que [cursor], en el mismo orden descendente de la lista. */
+    private suspend fun loadNewer(cursor: HistoryCursor, loadSize: Int): LoadResult<HistoryCursor, CompletedTaskItem> {
+        val items = taskDao.getCompletedHistoryPageAfter(cursor.completedAt, cursor.id, loadSize).asReversed()
+        return LoadResult.Page(
+            data = items,
+            prevKey = if (items.size < loadSize) null else HistoryCursor.of(items.first()),
+            nextKey = items.lastOrNull()?.let(HistoryCursor::of)
+        )
+    }
+
+    /**
+     * La recarga empieza por la fila más cercana a la posición visible; las más
+     * recientes se recuperan después con cargas hacia atrás.
+     */
+    override fun getRefreshKey(state: PagingState<HistoryCursor, CompletedTaskItem>): HistoryCursor? {
+        val anchor = state.anchorPosition ?: return null
+        return state.closestItemToPosition(anchor)?.let(HistoryCursor::before)
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecci.taskmanager.data.repository
+
+import java.util.Calendar
+import java.util.TimeZone
+
+/**
+ * Intervalo de días locales expresado en milisegundos, listo para usarse
+ * como parámetros `BETWEEN :start AND :end` sobre la columna `dueDate`.
+ *
+ * Los límites se calculan con la zona horaria del dispositivo, de modo que
+ * "hoy" corresponde al día local y no al día UTC. Como no se almacenan días
+ * precalculados, un cambio de zona horaria solo requiere volver a calcular
+ * el intervalo.
+ *
+ * @property start Primer milisegundo del intervalo.
+ * @property endInclusive Último milisegundo del intervalo (inclusive).
+ */
+data class DayRange(val start: Long, val endInclusive: Long) {
+
+    companion object {
+
+        /** Día local actual. */
+        fun today(now: Long = System.currentTimeMillis()): DayRange = ofDays(now, 0, 1)
+
+        /** Día local siguiente al actual. */
+        fun tomorrow(now: Long = System.currentTimeMillis()): DayRange = ofDays(now, 1, 1)
+
+        /**
+         * Desde el inicio del día actual hasta el final de la semana en curso,
+         * respetando el primer día de la semana de la configuración regional.
+         */
+        fun restOfWeek(now: Long = System.currentTimeMillis()): DayRange {
+            val calendar = startOfDay(now)
+            val firstDay = calendar.firstDayOfWeek
+            val daysIntoWeek = (calendar.get(Calendar.DAY_OF_WEEK) - firstDay + 7) % 7
+            return ofDays(now, 0, 7 - daysIntoWeek)
+        }
+
+        /**
+         * Semana ISO local que contiene [now]: de lunes a domingo, sin importar
+         * la configuración regional.
+         */
+        fun isoWeek(now: Long = System.currentTimeMillis()): DayRange {
+            val daysIntoWeek = (startOfDay(now).get(Calendar.DAY_OF_WEEK) + 5) % 7
+            return ofDays(now, -daysIntoWeek, 7)
+        }
+
+        /**
+         * Inicio de cada uno de los [count] días locales a partir del día de [start].
+         */
+        fun dayStarts(start: Long, count: Int): LongArray {
+            val calendar = startOfDay(start)
+            return LongArray(count) { index ->
+                if (index > 0) calendar.add(Calendar.DAY_OF_YEAR, 1)
+                calendar.timeInMillis
+            }
+        }
+
+        /**
+         * Intervalo de [lengthDays] días locales que comienza [offsetDays] días después de hoy.
+         *
+         * Se usa [Calendar] para sumar días, por lo que los cambios de horario de verano
+         * producen días de 23 o 25 horas correctamente.
+         */
+        fun ofDays(now: Long, offsetDays: Int, lengthDays: Int): DayRange {
+            val start = startOfDay(now).apply { add(Calendar.DAY_OF_YEAR, offsetDays) }
+            val end = (start.clone() as Calendar).apply { add(Calendar.DAY_OF_YEAR, lengthDays) }
+            return DayRange(start.timeInMillis, end.timeInMillis - 1)
+        }
+
+        private fun startOfDay(now: Long): Calendar {
+            return Calendar.getInstance(TimeZone.getDefault()).apply {
+                timeInMillis = now
+                set(Calendar.HOUR_OF_DAY, 0)
+                set(Calendar.MINUTE, 0)
+                set(Calendar.SECOND, 0)
+                set(Calendar.MILLISECOND, 0)
+            }
+        }
+    }
+}
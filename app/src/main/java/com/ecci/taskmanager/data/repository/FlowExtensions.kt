@@ -0,0 +1,19 @@
+package com.ecci.taskmanager.data.repository
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.flow.distinctUntilChanged
+
+/**
+ * Prepara un [Flow] proveniente de Room para ser expuesto a la capa de presentación.
+ *
+ * Room vuelve a ejecutar la consulta cada vez que cambia cualquier fila de las tablas
+ * observadas, aunque el resultado sea idéntico. Este operador:
+ * - Descarta los resultados iguales al anterior ([distinctUntilChanged]), evitando
+ *   pasadas de DiffUtil y re-bindings innecesarios.
+ * - Conserva solo el resultado más reciente si el consumidor va más lento que la
+ *   base de datos ([conflate]).
+ *
+ * @return El mismo flujo sin emisiones duplicadas ni acumuladas.
+ */
+fun <T> Flow<T>.distinctConflated(): Flow<T> = distinctUntilChanged().conflate()
@@ -0,0 +1,152 @@
+package com.ecci.taskmanager.data.repository
+
+import com.ecci.taskmanager.data.model.RecurrenceRule
+import com.ecci.taskmanager.data.model.Task
+import com.ecci.taskmanager.data.model.TaskOccurrence
+import java.util.Calendar
+import java.util.TimeZone
+
+/**
+ * Conjunto de tareas recurrentes preparado para generar sus ocurrencias.
+ *
+ * Las reglas de cada tarea se interpretan una sola vez ([RecurrenceRule]) y se
+ * guardan en arreglos primitivos, agrupadas por día de la semana y ordenadas por
+ * hora de inicio. Expandir una ventana recorre cada día una vez y, para ese día,
+ * solo las tareas que se repiten en él; el resultado sale ordenado por inicio.
+ *
+ * [forEachOccurrence] no crea objetos por ocurrencia (solo un [Calendar] por
+ * llamada); [occurrences] ofrece lo mismo como secuencia perezosa de [TaskOccurrence].
+ *
+ * Las horas son de reloj local: en los días con cambio de horario se corrige el
+ * desfase. Si la hora de fin no es posterior a la de inicio, la ocurrencia
+ * termina al día siguiente.
+ */
+class RecurrenceSchedule private constructor(
+    private val taskIds: LongArray,
+    private val titles: Array<String>,
+    private val startMinutes: IntArray,
+    private val endMinutes: IntArray,
+    /** Índices de tareas por día ISO (posición 0 = lunes), ordenados por inicio. */
+    private val byWeekday: Array<IntArray>
+) {
+
+    /**
+     * Recibe cada ocurrencia sin crear objetos intermedios.
+     */
+    fun interface OccurrenceAction {
+        /**
+         * @param index Posición de la tarea (ver [taskId] y [title]).
+         * @param start Inicio en milisegundos.
+         * @param end Fin en milisegundos.
+         */
+        fun onOccurrence(index: Int, start: Long, end: Long)
+    }
+
+    /** Número de tareas recurrentes válidas. */
+    val size: Int get() = taskIds.size
+
+    /** ID de la tarea en la posición [index]. */
+    fun taskId(index: Int): Long = taskIds[index]
+
+    /** Título de la tarea en la posición [index]. */
+    fun title(index: Int): String = titles[index]
+
+    /**
+     * Recorre las ocurrencias que se solapan con [window], en orden de inicio.
+     *
+     * @param window Intervalo de días locales.
+     * @param action Acción a ejecutar por ocurrencia.
+     */
+    fun forEachOccurrence(window: DayRange, action: OccurrenceAction) {
+        expand(window) { index, start, end -> action.onOccurrence(index, start, end) }
+    }
+
+    /**
+     * Ocurrencias que se solapan con [window], generadas a medida que se consumen.
+     *
+     * @param window Intervalo de días locales.
+     * @return Secuencia perezosa ordenada por inicio.
+     */
+    fun occurrences(window: DayRange): Sequence<TaskOccurrence> = sequence {
+        expand(window) { index, start, end ->
+            yield(TaskOccurrence(taskIds[index], titles[index], start, end))
+        }
+    }
+
+    private inline fun expand(window: DayRange, action: (index: Int, start: Long, end: Long) -> Unit) {
+        if (taskIds.isEmpty()) return
+        val timeZone = TimeZone.getDefault()
+        val day = Calendar.getInstance(timeZone).apply {
+            timeInMillis = window.start
+            set(Calendar.HOUR_OF_DAY, 0)
+            set(Calendar.MINUTE, 0)
+            set(Calendar.SECOND, 0)
+            set(Calendar.MILLISECOND, 0)
+            // Una ocurrencia del día anterior que termina después de medianoche
+            add(Calendar.DAY_OF_YEAR, -1)
+        }
+
+        while (day.timeInMillis <= window.endInclusive) {
+            val dayStart = day.timeInMillis
+            val offset = timeZone.getOffset(dayStart)
+            val isoDay = (day.get(Calendar.DAY_OF_WEEK) + 5) % 7 + 1
+
+            for (index in byWeekday[isoDay - 1]) {
+                val startMinute = startMinutes[index]
+                var endMinute = endMinutes[index]
+                if (endMinute <= startMinute) endMinute += RecurrenceRule.MINUTES_PER_DAY
+
+                val start = wallClock(timeZone, dayStart, offset, startMinute)
+                val end = wallClock(timeZone, dayStart, offset, endMinute)
+                if (end > window.start && start <= window.endInclusive) {
+                    action(index, start, end)
+                }
+            }
+            day.add(Calendar.DAY_OF_YEAR, 1)
+        }
+    }
+
+    companion object {
+
+        /**
+         * Prepara el calendario de las tareas recurrentes de [tasks].
+         * Las tareas sin una regla válida se omiten.
+         */
+        fun of(tasks: List<Task>): RecurrenceSchedule {
+            val ids = ArrayList<Long>(tasks.size)
+            val titles = ArrayList<String>(tasks.size)
+            val rules = ArrayList<RecurrenceRule>(tasks.size)
+            for (task in tasks) {
+                val rule = RecurrenceRule.fromTask(task) ?: continue
+                ids += task.id
+                titles += task.title
+                rules += rule
+            }
+
+            val byWeekday = Array(7) { dayIndex ->
+                val bit = 1 shl dayIndex
+                rules.indices
+                    .filter { rules[it].dayMask and bit != 0 }
+                    .sortedBy { rules[it].startMinute }
+                    .toIntArray()
+            }
+
+            return RecurrenceSchedule(
+                taskIds = ids.toLongArray(),
+                titles = titles.toTypedArray(),
+                startMinutes = IntArray(rules.size) { rules[it].startMinute },
+                endMinutes = IntArray(rules.size) { rules[it].endMinute },
+                byWeekday = byWeekday
+            )
+        }
+
+        /**
+         * Milisegundo de un minuto de reloj local, partiendo del inicio del día.
+         * Corrige la diferencia si el horario de verano cambia durante el día.
+         */
+        private fun wallClock(timeZone: TimeZone, dayStart: Long, dayOffset: Int, minute: Int): Long {
+            val naive = dayStart + minute * 60_000L
+            return naive + (dayOffset - timeZone.getOffset(naive))
+        }
+    }
+}
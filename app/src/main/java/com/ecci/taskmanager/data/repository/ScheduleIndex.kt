@@ -0,0 +1,191 @@
+package com.ecci.taskmanager.data.repository
+
+import com.ecci.taskmanager.data.model.RecurrenceRule
+import com.ecci.taskmanager.data.model.Task
+
+/**
+ * Índice de los bloques horarios de las tareas recurrentes, por día de la semana,
+ * para detectar cruces mientras el usuario edita un horario.
+ *
+ * Cada día guarda sus bloques en un árbol de intervalos implícito: arreglos
+ * ordenados por inicio donde cada posición conoce el mayor fin de su subárbol.
+ * Consultar qué bloques se cruzan con otro cuesta O(log n + k) en lugar de
+ * comparar contra todas las tareas.
+ *
+ * [sync] compara la lista recibida con la anterior y solo inserta o elimina las
+ * tareas cuya regla cambió, en los días que abarca. Un bloque que termina
+ * después de medianoche se divide entre su día y el siguiente.
+ */
+class ScheduleIndex {
+
+    private val days = Array(7) { DayTree() }
+
+    private val rulesByTask = HashMap<Long, RecurrenceRule>()
+
+    /**
+     * Actualiza el índice con la lista actual de tareas recurrentes.
+     *
+     * @param tasks Todas las tareas recurrentes activas.
+     * @return `true` si el índice cambió.
+     */
+    @Synchronized
+    fun sync(tasks: List<Task>): Boolean {
+        val current = HashMap<Long, RecurrenceRule>(tasks.size)
+        for (task in tasks) {
+            RecurrenceRule.fromTask(task)?.let { current[task.id] = it }
+        }
+
+        var changed = false
+        val removed = rulesByTask.keys.filter { it !in current }
+        for (taskId in removed) {
+            remove(taskId)
+            changed = true
+        }
+        for ((taskId, rule) in current) {
+            if (rulesByTask[taskId] != rule) {
+                put(taskId, rule)
+                changed = true
+            }
+        }
+        return changed
+    }
+
+    /**
+     * Agrega o reemplaza los bloques de una tarea.
+     */
+    @Synchronized
+    fun put(taskId: Long, rule: RecurrenceRule) {
+        remove(taskId)
+        rulesByTask[taskId] = rule
+        forEachBlock(rule) { dayIndex, start, end -> days[dayIndex].insert(taskId, start, end) }
+    }
+
+    /**
+     * Elimina los bloques de una tarea, si existen.
+     */
+    @Synchronized
+    fun remove(taskId: Long) {
+        val rule = rulesByTask.remove(taskId) ?: return
+        forEachBlock(rule) { dayIndex, start, _ -> days[dayIndex].remove(taskId, start) }
+    }
+
+    /**
+     * Obtiene las tareas cuyo horario se cruza con [rule] en alguno de sus días.
+     *
+     * @param rule Horario a comprobar.
+     * @param excludeTaskId Tarea que se está editando (no choca consigo misma).
+     * @return IDs de las tareas en conflicto, sin repetir.
+     */
+    @Synchronized
+    fun findConflicts(rule: RecurrenceRule, excludeTaskId: Long = 0): Set<Long> {
+        val conflicts = LinkedHashSet<Long>()
+        forEachBlock(rule) { dayIndex, start, end ->
+            days[dayIndex].collectOverlaps(start, end, conflicts)
+        }
+        conflicts.remove(excludeTaskId)
+        return conflicts
+    }
+
+    /**
+     * Recorre los bloques [inicio, fin) de una regla por día (0 = lunes).
+     */
+    private inline fun forEachBlock(rule: RecurrenceRule, action: (dayIndex: Int, start: Int, end: Int) -> Unit) {
+        val overnight = rule.endMinute <= rule.startMinute
+        for (dayIndex in 0 until 7) {
+            if (rule.dayMask and (1 shl dayIndex) == 0) continue
+            if (overnight) {
+                action(dayIndex, rule.startMinute, RecurrenceRule.MINUTES_PER_DAY)
+                if (rule.endMinute > 0) action((dayIndex + 1) % 7, 0, rule.endMinute)
+            } else {
+                action(dayIndex, rule.startMinute, rule.endMinute)
+            }
+        }
+    }
+
+    /**
+     * Árbol de intervalos de un día sobre arreglos ordenados por (inicio, ID).
+     *
+     * El nodo del rango [lo, hi] es su punto medio; [maxEnd] guarda el mayor fin del
+     * rango, lo que permite descartar subárboles completos en las consultas.
+     */
+    private class DayTree {
+        private var size = 0
+        private var ids = LongArray(INITIAL_CAPACITY)
+        private var starts = IntArray(INITIAL_CAPACITY)
+        private var ends = IntArray(INITIAL_CAPACITY)
+        private var maxEnd = IntArray(INITIAL_CAPACITY)
+
+        fun insert(taskId: Long, start: Int, end: Int) {
+            if (size == ids.size) grow()
+            val position = lowerBound(start, taskId)
+            val tail = size - position
+            System.arraycopy(ids, position, ids, position + 1, tail)
+            System.arraycopy(starts, position, starts, position + 1, tail)
+            System.arraycopy(ends, position, ends, position + 1, tail)
+            ids[position] = taskId
+            starts[position] = start
+            ends[position] = end
+            size++
+            rebuild(0, size - 1)
+        }
+
+        fun remove(taskId: Long, start: Int) {
+            val position = lowerBound(start, taskId)
+            if (position >= size || ids[position] != taskId || starts[position] != start) return
+            val tail = size - position - 1
+            System.arraycopy(ids, position + 1, ids, position, tail)
+            System.arraycopy(starts, position + 1, starts, position, tail)
+            System.arraycopy(ends, position + 1, ends, position, tail)
+            size--
+            rebuild(0, size - 1)
+        }
+
+        fun collectOverlaps(start: Int, end: Int, out: MutableSet<Long>) {
+            query(0, size - 1, start, end, out)
+        }
+
+        private fun query(lo: Int, hi: Int, start: Int, end: Int, out: MutableSet<Long>) {
+            if (lo > hi) return
+            val mid = (lo + hi) ushr 1
+            // Ningún bloque del subárbol termina después del inicio buscado
+            if (maxEnd[mid] <= start) return
+            query(lo, mid - 1, start, end, out)
+            // Los bloques a la derecha empiezan aún más tarde
+            if (starts[mid] >= end) return
+            if (ends[mid] > start) out.add(ids[mid])
+            query(mid + 1, hi, start, end, out)
+        }
+
+        private fun rebuild(lo: Int, hi: Int): Int {
+            if (lo > hi) return Int.MIN_VALUE
+            val mid = (lo + hi) ushr 1
+            val max = maxOf(ends[mid], rebuild(lo, mid - 1), rebuild(mid + 1, hi))
+            maxEnd[mid] = max
+            return max
+        }
+
+        /** Primera posición cuyo (inicio, ID) no es menor que el indicado. */
+        private fun lowerBound(start: Int, taskId: Long): Int {
+            var lo = 0
+            var hi = size
+            while (lo < hi) {
+                val mid = (lo + hi) ushr 1
+                val less = starts[mid] < start || (starts[mid] == start && ids[mid] < taskId)
+                if (less) lo = mid + 1 else hi = mid
+            }
+            return lo
+        }
+
+        private fun grow() {
+            val capacity = ids.size * 2
+            ids = ids.copyOf(capacity)
+            starts = starts.copyOf(capacity)
+            ends = ends.copyOf(capacity)
+            maxEnd = maxEnd.copyOf(capacity)
+        }
+
+        companion object {
+            private const val INITIAL_CAPACITY = 16
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.ecci.taskmanager.data.repository
 
-import androidx.lifecycle.LiveData
 import com.ecci.taskmanager.data.dao.TagDao
 import com.ecci.taskmanager.data.model.Tag
 import com.ecci.taskmanager.data.model.Task
 import com.ecci.taskmanager.data.model.TaskTagCrossRef
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.withContext
 import javax.inject.Inject
 import javax.inject.Singleton
@@ -28,7 +28,7 @@ class TagRepository @Inject constructor(
 ) {
 
     /** Lista reactiva con todas las etiquetas almacenadas en la base de datos. */
-    val allTags: LiveData<List<Tag>> = tagDao.getAllTags()
+    val allTags: Flow<List<Tag>> = tagDao.getAllTags().distinctConflated()
 
     /**
      * Inserta una nueva etiqueta en la base de datos, validando su nombre antes de hacerlo.
@@ -170,7 +170,8 @@ class TagRepository @Inject constructor(
     /**
      * Actualiza todas las etiquetas asociadas a una tarea.
      *
-     * Elimina las relaciones existentes y crea nuevas según la lista de IDs recibida.
+     * Solo se escriben las relaciones agregadas o eliminadas, en una única
+     * transacción (ver [TagDao.replaceTaskTags]).
      *
      * @param taskId ID de la tarea.
      * @param tagIds Lista de IDs de etiquetas que deben quedar asociadas.
@@ -179,13 +180,7 @@ class TagRepository @Inject constructor(
     suspend fun updateTaskTags(taskId: Long, tagIds: List<Long>): Result<Unit> =
         withContext(Dispatchers.IO) {
             try {
-                tagDao.deleteAllTagsFromTask(taskId)
-
-                tagIds.forEach { tagId ->
-                    val crossRef = TaskTagCrossRef(taskId, tagId)
-                    tagDao.insertTaskTagCrossRef(crossRef)
-                }
-
+                tagDao.replaceTaskTags(taskId, tagIds)
                 Result.success(Unit)
             } catch (e: Exception) {
                 Result.failure(e)
@@ -196,30 +191,30 @@ class TagRepository @Inject constructor(
      * Obtiene todas las etiquetas asociadas a una tarea específica.
      *
      * @param taskId ID de la tarea.
-     * @return [LiveData] con la lista de etiquetas relacionadas.
+     * @return [Flow] con la lista de etiquetas relacionadas.
      */
-    fun getTagsForTask(taskId: Long): LiveData<List<Tag>> {
-        return tagDao.getTagsForTask(taskId)
+    fun getTagsForTask(taskId: Long): Flow<List<Tag>> {
+        return tagDao.getTagsForTask(taskId).distinctConflated()
     }
 
     /**
      * Obtiene todas las tareas asociadas a una etiqueta determinada.
      *
      * @param tagId ID de la etiqueta.
-     * @return [LiveData] con la lista de tareas relacionadas.
+     * @return [Flow] con la lista de tareas relacionadas.
      */
-    fun getTasksWithTag(tagId: Long): LiveData<List<Task>> {
-        return tagDao.getTasksWithTag(tagId)
+    fun getTasksWithTag(tagId: Long): Flow<List<Task>> {
+        return tagDao.getTasksWithTag(tagId).distinctConflated()
     }
 
     /**
      * Obtiene la cantidad total de tareas vinculadas a una etiqueta específica.
      *
      * @param tagId ID de la etiqueta.
-     * @return [LiveData] con el número total de tareas asociadas.
+     * @return [Flow] con el número total de tareas asociadas.
      */
-    fun getTaskCountForTag(tagId: Long): LiveData<Int> {
-        return tagDao.getTaskCountForTag(tagId)
+    fun getTaskCountForTag(tagId: Long): Flow<Int> {
+        return tagDao.getTaskCountForTag(tagId).distinctConflated()
     }
 
     /**
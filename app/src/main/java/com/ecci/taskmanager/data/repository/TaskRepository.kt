@@ -1,12 +1,40 @@
 package com.ecci.taskmanager.data.repository
 
-import androidx.lifecycle.LiveData
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.PagingSource
+import androidx.room.withTransaction
 import com.ecci.taskmanager.data.dao.TaskDao
+import com.ecci.taskmanager.data.database.AppDatabase
+import com.ecci.taskmanager.data.database.DatabaseExecutors
+import com.ecci.taskmanager.data.database.FtsQuery
+import com.ecci.taskmanager.data.database.TaskQueryCompiler
+import com.ecci.taskmanager.data.model.CompletedTaskItem
+import com.ecci.taskmanager.data.model.RecurrenceRule
 import com.ecci.taskmanager.data.model.Task
+import com.ecci.taskmanager.data.model.TaskQuery
+import com.ecci.taskmanager.data.model.TaskWithTags
+import com.ecci.taskmanager.data.model.WeekAgenda
+import com.ecci.taskmanager.data.model.TaskStatsSnapshot
 import com.ecci.taskmanager.data.model.TaskStatus
 import com.ecci.taskmanager.data.model.Priority
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.withContext
+import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 import javax.inject.Singleton
 
@@ -24,31 +52,133 @@ import javax.inject.Singleton
  */
 @Singleton
 class TaskRepository @Inject constructor(
+    private val database: AppDatabase,
     private val taskDao: TaskDao
 ) {
 
-    // --- LiveData para observar diferentes tipos de tareas ---
-    val allTasks: LiveData<List<Task>> = taskDao.getAllTasks()
-    val pendingTasks: LiveData<List<Task>> = taskDao.getPendingTasks()
-    val completedTasks: LiveData<List<Task>> = taskDao.getCompletedTasks()
-    val overdueTasks: LiveData<List<Task>> = taskDao.getOverdueTasks()
-    val todayTasks: LiveData<List<Task>> = taskDao.getTodayTasks()
-    val tasksWithReminder: LiveData<List<Task>> = taskDao.getTasksWithReminder()
+    // --- Flujos para observar diferentes tipos de tareas (sin emisiones duplicadas) ---
+    val allTasks: Flow<List<Task>> = taskDao.getAllTasks().distinctConflated()
+    val pendingTasks: Flow<List<Task>> = taskDao.getPendingTasks().distinctConflated()
+    val completedTasks: Flow<List<Task>> = taskDao.getCompletedTasks().distinctConflated()
+    // La fecha actual y el día local se calculan en cada suscripción (ver [atSubscription])
+    val overdueTasks: Flow<List<Task>> = atSubscription { now ->
+        taskDao.getOverdueTasks(now)
+    }.distinctConflated()
+    val todayTasks: Flow<List<Task>> = atSubscription { now ->
+        val today = DayRange.today(now)
+        taskDao.getTodayTasks(today.start, today.endInclusive)
+    }.distinctConflated()
+    val tomorrowTasks: Flow<List<Task>> = atSubscription { now ->
+        val tomorrow = DayRange.tomorrow(now)
+        taskDao.getTasksDueInRange(tomorrow.start, tomorrow.endInclusive)
+    }.distinctConflated()
+    val thisWeekTasks: Flow<List<Task>> = atSubscription { now ->
+        val week = DayRange.restOfWeek(now)
+        taskDao.getTasksDueInRange(week.start, week.endInclusive)
+    }.distinctConflated()
+    val tasksWithReminder: Flow<List<Task>> = taskDao.getTasksWithReminder().distinctConflated()
+
+    val recurringTasks: Flow<List<Task>> = taskDao.getRecurringTasks().distinctConflated()
+
+    /** Agendas semanales ya calculadas; se actualizan por día (ver [WeekAgendaCache]). */
+    private val weekAgendaCache = WeekAgendaCache()
+
+    /**
+     * Agenda de la semana ISO en curso: ocurrencias de las tareas recurrentes y
+     * tareas no completadas que vencen en la semana, por día y ordenadas por hora.
+     *
+     * Cada cambio en las tareas solo recalcula los días afectados.
+     */
+    val weekAgenda: Flow<WeekAgenda> = atSubscription { now ->
+        val week = DayRange.isoWeek(now)
+        combine(
+            recurringTasks,
+            taskDao.getTasksDueInRange(week.start, week.endInclusive)
+        ) { recurring, dated ->
+            weekAgendaCache.update(week, (recurring + dated).distinctBy { it.id })
+        }
+    }.flowOn(Dispatchers.Default).distinctConflated()
 
     // --- Contadores observables ---
-    val totalTasksCount: LiveData<Int> = taskDao.getTotalTasksCount()
-    val completedTasksCount: LiveData<Int> = taskDao.getCompletedTasksCount()
-    val pendingTasksCount: LiveData<Int> = taskDao.getPendingTasksCount()
-    val overdueTasksCount: LiveData<Int> = taskDao.getOverdueTasksCount()
+    val totalTasksCount: Flow<Int> = taskDao.getTotalTasksCount().distinctConflated()
+    val completedTasksCount: Flow<Int> = taskDao.getCompletedTasksCount().distinctConflated()
+    val pendingTasksCount: Flow<Int> = taskDao.getPendingTasksCount().distinctConflated()
+    val overdueTasksCount: Flow<Int> = atSubscription { now ->
+        taskDao.getOverdueTasksCount(now)
+    }.distinctConflated()
+
+    // --- Lista paginada para la pantalla principal ---
+
+    /**
+     * Lista paginada de las tareas que cumplen una consulta de varios criterios,
+     * resuelta con una sola consulta SQL (ver [TaskQueryCompiler]).
+     *
+     * La consulta se construye al crear cada PagingSource (cada invalidación o
+     * recarga) con la hora actual, así los criterios relativos como "hoy" o
+     * "vencidas" no quedan fijos mientras `cachedIn` mantiene viva la suscripción.
+     */
+    fun queryTasksPaged(query: (now: Long) -> TaskQuery): Flow<PagingData<TaskWithTags>> = pager {
+        taskDao.getTasksPaged(TaskQueryCompiler.compile(query(System.currentTimeMillis())))
+    }
+
+    /**
+     * Historial de tareas completadas (incluidas las archivadas), más recientes primero.
+     *
+     * Se pagina por cursor con [CompletedHistoryPagingSource], de modo que el
+     * desplazamiento infinito mantiene un costo constante por página.
+     */
+    fun completedHistoryPaged(): Flow<PagingData<CompletedTaskItem>> = pager {
+        CompletedHistoryPagingSource(database, taskDao)
+    }
+
+    /**
+     * Crea un flujo cuya consulta se construye con la hora actual en el momento de
+     * suscribirse, y no al crear el repositorio. Así "hoy" y "vencidas" se recalculan
+     * cada vez que la pantalla vuelve a observarlas (por ejemplo, tras medianoche o
+     * un cambio de zona horaria).
+     */
+    private fun <T> atSubscription(query: (now: Long) -> Flow<T>): Flow<T> = flow {
+        emitAll(query(System.currentTimeMillis()))
+    }
+
+    /**
+     * Crea un [Pager] con la configuración común de las listas de tareas.
+     *
+     * Los marcadores de posición mantienen estable la barra de desplazamiento y
+     * `maxSize` descarta las páginas lejanas, de modo que la memoria depende
+     * del área visible y no del tamaño de la tabla.
+     */
+    private fun <K : Any, T : Any> pager(sourceFactory: () -> PagingSource<K, T>): Flow<PagingData<T>> {
+        return Pager(
+            config = PagingConfig(
+                pageSize = PAGE_SIZE,
+                prefetchDistance = PREFETCH_DISTANCE,
+                initialLoadSize = PAGE_SIZE * 2,
+                enablePlaceholders = true,
+                maxSize = MAX_LOADED_ITEMS
+            ),
+            pagingSourceFactory = sourceFactory
+        ).flow
+    }
+
+    /**
+     * Resumen de estadísticas calculado en una sola consulta.
+     *
+     * La fecha actual y los límites del día local se calculan al suscribirse.
+     */
+    fun statsSnapshot(): Flow<TaskStatsSnapshot> = atSubscription { now ->
+        val today = DayRange.today(now)
+        taskDao.getStatsSnapshot(now, today.start, today.endInclusive)
+    }.distinctConflated()
 
     /**
      * Inserta una nueva tarea en la base de datos.
      * Valida que el título no esté vacío antes de insertar.
      */
-    suspend fun insertTask(task: Task): Result<Long> = withContext(Dispatchers.IO) {
-        try {
+    suspend fun insertTask(task: Task): Result<Long> {
+        return try {
             if (!task.isValid()) {
-                return@withContext Result.failure(
+                return Result.failure(
                     IllegalArgumentException("El título de la tarea no puede estar vacío")
                 )
             }
@@ -62,18 +192,24 @@ class TaskRepository @Inject constructor(
 
     /**
      * Inserta una lista de tareas, validando los datos de cada una.
+     *
+     * Todas las tareas se escriben en una sola transacción: o se insertan todas o ninguna.
      */
-    suspend fun insertTasks(tasks: List<Task>): Result<Unit> = withContext(Dispatchers.IO) {
-        try {
+    suspend fun insertTasks(tasks: List<Task>): Result<Unit> {
+        return try {
             tasks.forEach { task ->
                 if (!task.isValid()) {
-                    return@withContext Result.failure(
+                    return Result.failure(
                         IllegalArgumentException("Una o más tareas tienen datos inválidos")
                     )
                 }
             }
 
-            taskDao.insertAll(tasks)
+            database.withTransaction {
+                tasks.chunked(BULK_INSERT_CHUNK_SIZE).forEach { chunk ->
+                    taskDao.insertAll(chunk)
+                }
+            }
             Result.success(Unit)
         } catch (e: Exception) {
             Result.failure(e)
@@ -81,66 +217,126 @@ class TaskRepository @Inject constructor(
     }
 
     /**
-     * Obtiene una tarea por su ID (versión suspendida).
+     * Inserción masiva de tareas (por ejemplo, al importar datos).
+     *
+     * Descarta las tareas inválidas y las repetidas dentro del lote (ver [BulkInsertBatch])
+     * e inserta el resto en bloques de [BULK_INSERT_CHUNK_SIZE] dentro de una única
+     * transacción. Room solo notifica a los observadores al confirmar la transacción,
+     * por lo que las listas y contadores se recalculan una vez al final y no por cada tarea.
+     *
+     * El flujo emite el progreso después de cada bloque; si el consumidor es más lento
+     * solo recibe el último valor, sin retrasar la escritura. Si ocurre un error o se
+     * cancela la recolección, la transacción se revierte y no se inserta ninguna tarea.
+     *
+     * @param tasks Tareas a insertar.
+     * @return Flujo con el progreso de la inserción; termina al confirmar la transacción.
      */
-    suspend fun getTaskById(taskId: Long): Task? = withContext(Dispatchers.IO) {
-        taskDao.getTaskById(taskId)
+    fun bulkInsertTasks(tasks: List<Task>): Flow<BulkInsertProgress> = channelFlow {
+        val batch = BulkInsertBatch.of(tasks)
+        var progress = batch.initialProgress
+        send(progress)
+
+        database.withTransaction {
+            batch.tasks.chunked(BULK_INSERT_CHUNK_SIZE).forEach { chunk ->
+                ensureActive()
+                taskDao.insertAll(chunk)
+                progress = progress.copy(
+                    processed = progress.processed + chunk.size,
+                    inserted = progress.inserted + chunk.size
+                )
+                send(progress)
+            }
+        }
     }
+        .buffer(Channel.CONFLATED)
+        .flowOn(DatabaseExecutors.analyticsDispatcher)
 
     /**
-     * Obtiene una tarea por su ID en forma de LiveData (para observación en la UI).
+     * Obtiene una tarea por su ID (versión suspendida).
      */
-    fun getTaskByIdLive(taskId: Long): LiveData<Task?> {
-        return taskDao.getTaskByIdLive(taskId)
+    suspend fun getTaskById(taskId: Long): Task? = taskDao.getTaskById(taskId)
+
+    /**
+     * Obtiene una tarea por su ID en forma de flujo (para observación en la UI).
+     */
+    fun getTaskByIdLive(taskId: Long): Flow<Task?> {
+        return taskDao.getTaskByIdLive(taskId).distinctConflated()
     }
 
     /**
      * Filtra las tareas según su estado (pendiente, completada, vencida).
      */
-    fun getTasksByStatus(status: TaskStatus): LiveData<List<Task>> {
-        return taskDao.getTasksByStatus(status)
+    fun getTasksByStatus(status: TaskStatus): Flow<List<Task>> {
+        return taskDao.getTasksByStatus(status).distinctConflated()
     }
 
     /**
      * Obtiene todas las tareas pertenecientes a una categoría específica.
      */
-    fun getTasksByCategory(categoryId: Long): LiveData<List<Task>> {
-        return taskDao.getTasksByCategory(categoryId)
+    fun getTasksByCategory(categoryId: Long): Flow<List<Task>> {
+        return taskDao.getTasksByCategory(categoryId).distinctConflated()
     }
 
     /**
      * Filtra las tareas por su prioridad (Alta, Media o Baja).
      */
-    fun getTasksByPriority(priority: Priority): LiveData<List<Task>> {
-        return taskDao.getTasksByPriority(priority)
+    fun getTasksByPriority(priority: Priority): Flow<List<Task>> {
+        return taskDao.getTasksByPriority(priority).distinctConflated()
     }
 
     /**
      * Busca tareas que coincidan con un texto ingresado por el usuario.
+     *
+     * Cada palabra se busca como prefijo en el índice de texto completo y los
+     * resultados se ordenan por relevancia BM25 (el título pesa más que la descripción).
      */
-    fun searchTasks(query: String): LiveData<List<Task>> {
-        return taskDao.searchTasks(query)
+    fun searchTasks(query: String): Flow<List<Task>> {
+        val matchQuery = FtsQuery.prefixQuery(query) ?: return flowOf(emptyList())
+        return taskDao.searchTasks(matchQuery)
+            .map { results ->
+                results.sortedByDescending { FtsQuery.bm25(it.matchInfo) }.map { it.task }
+            }
+            .flowOn(Dispatchers.Default)
+            .distinctConflated()
+    }
+
+    /**
+     * Tareas recurrentes programadas un día de la semana (1 = lunes … 7 = domingo).
+     */
+    fun getTasksScheduledOn(isoDay: Int): Flow<List<Task>> {
+        return taskDao.getTasksScheduledOn(RecurrenceRule.dayBit(isoDay)).distinctConflated()
+    }
+
+    /**
+     * Tareas recurrentes cuyo horario se cruza con [fromMinute, toMinute) en un día
+     * de la semana; la consulta se resuelve completa en SQLite.
+     */
+    fun getTasksScheduledBetween(isoDay: Int, fromMinute: Int, toMinute: Int): Flow<List<Task>> {
+        return taskDao.getTasksScheduledBetween(RecurrenceRule.dayBit(isoDay), fromMinute, toMinute)
+            .distinctConflated()
     }
 
     /**
      * Obtiene las tareas completadas dentro de un rango de fechas específico.
      */
-    fun getTasksCompletedInRange(startDate: Long, endDate: Long): LiveData<List<Task>> {
-        return taskDao.getTasksCompletedInRange(startDate, endDate)
+    fun getTasksCompletedInRange(startDate: Long, endDate: Long): Flow<List<Task>> {
+        return taskDao.getTasksCompletedInRange(startDate, endDate).distinctConflated()
     }
 
     /**
      * Actualiza los datos de una tarea existente, validando su información.
+     *
+     * Si la tarea estaba vencida y su fecha límite ya no pasó, vuelve a pendiente.
      */
-    suspend fun updateTask(task: Task): Result<Unit> = withContext(Dispatchers.IO) {
-        try {
+    suspend fun updateTask(task: Task): Result<Unit> {
+        return try {
             if (!task.isValid()) {
-                return@withContext Result.failure(
+                return Result.failure(
                     IllegalArgumentException("Los datos de la tarea no son válidos")
                 )
             }
 
-            taskDao.update(task)
+            taskDao.update(task.withCurrentStatus())
             Result.success(Unit)
         } catch (e: Exception) {
             Result.failure(e)
@@ -150,21 +346,20 @@ class TaskRepository @Inject constructor(
     /**
      * Actualiza únicamente el estado de una tarea (por ejemplo, de pendiente a completada).
      */
-    suspend fun updateTaskStatus(taskId: Long, status: TaskStatus): Result<Unit> =
-        withContext(Dispatchers.IO) {
-            try {
-                taskDao.updateTaskStatus(taskId, status)
-                Result.success(Unit)
-            } catch (e: Exception) {
-                Result.failure(e)
-            }
+    suspend fun updateTaskStatus(taskId: Long, status: TaskStatus): Result<Unit> {
+        return try {
+            taskDao.updateTaskStatus(taskId, status)
+            Result.success(Unit)
+        } catch (e: Exception) {
+            Result.failure(e)
         }
+    }
 
     /**
      * Marca una tarea como completada y actualiza su fecha de finalización.
      */
-    suspend fun markTaskAsCompleted(taskId: Long): Result<Unit> = withContext(Dispatchers.IO) {
-        try {
+    suspend fun markTaskAsCompleted(taskId: Long): Result<Unit> {
+        return try {
             taskDao.markAsCompleted(taskId, System.currentTimeMillis())
             Result.success(Unit)
         } catch (e: Exception) {
@@ -172,11 +367,28 @@ class TaskRepository @Inject constructor(
         }
     }
 
+    /**
+     * Marca una tarea como completada o pendiente a partir de su ID, sin
+     * necesidad de cargar la tarea completa (usado desde la lista).
+     */
+    suspend fun setTaskCompleted(taskId: Long, completed: Boolean): Result<Unit> {
+        return try {
+            if (completed) {
+                taskDao.markAsCompleted(taskId, System.currentTimeMillis())
+            } else {
+                taskDao.markAsPending(taskId)
+            }
+            Result.success(Unit)
+        } catch (e: Exception) {
+            Result.failure(e)
+        }
+    }
+
     /**
      * Alterna el estado de una tarea entre completada y pendiente.
      */
-    suspend fun toggleTaskCompletion(task: Task): Result<Unit> = withContext(Dispatchers.IO) {
-        try {
+    suspend fun toggleTaskCompletion(task: Task): Result<Unit> {
+        return try {
             val updatedTask = if (task.status == TaskStatus.COMPLETED) {
                 task.copy(status = TaskStatus.PENDING, completedAt = null)
             } else {
@@ -197,8 +409,8 @@ class TaskRepository @Inject constructor(
         taskId: Long,
         hasReminder: Boolean,
         reminderTime: Long?
-    ): Result<Unit> = withContext(Dispatchers.IO) {
-        try {
+    ): Result<Unit> {
+        return try {
             taskDao.updateReminder(taskId, hasReminder, reminderTime)
             Result.success(Unit)
         } catch (e: Exception) {
@@ -207,11 +419,20 @@ class TaskRepository @Inject constructor(
     }
 
     /**
-     * Elimina una tarea específica de la base de datos.
+     * Elimina una tarea específica (eliminación lógica, ver [deleteTaskById]).
      */
-    suspend fun deleteTask(task: Task): Result<Unit> = withContext(Dispatchers.IO) {
-        try {
-            taskDao.delete(task)
+    suspend fun deleteTask(task: Task): Result<Unit> = deleteTaskById(task.id)
+
+    /**
+     * Elimina una tarea a partir de su ID.
+     *
+     * La tarea solo se marca con `deletedAt`: deja de aparecer en las consultas y
+     * contadores, pero puede recuperarse con [restoreTask] hasta que
+     * [purgeDeletedTasks] la elimine físicamente.
+     */
+    suspend fun deleteTaskById(taskId: Long): Result<Unit> {
+        return try {
+            taskDao.softDelete(taskId, System.currentTimeMillis())
             Result.success(Unit)
         } catch (e: Exception) {
             Result.failure(e)
@@ -219,23 +440,51 @@ class TaskRepository @Inject constructor(
     }
 
     /**
-     * Elimina una tarea a partir de su ID.
+     * Recupera una tarea eliminada que aún no se ha purgado.
+     *
+     * Retorna `true` si la tarea se recuperó.
      */
-    suspend fun deleteTaskById(taskId: Long): Result<Unit> = withContext(Dispatchers.IO) {
-        try {
-            taskDao.deleteById(taskId)
-            Result.success(Unit)
+    suspend fun restoreTask(taskId: Long): Result<Boolean> {
+        return try {
+            Result.success(taskDao.restore(taskId) > 0)
         } catch (e: Exception) {
             Result.failure(e)
         }
     }
 
     /**
-     * Elimina todas las tareas que ya han sido completadas.
+     * Elimina físicamente las tareas eliminadas hace más de [olderThanMillis] milisegundos.
+     *
+     * Se procesa en bloques de [PURGE_CHUNK_SIZE], cada uno en su propia transacción,
+     * igual que [archiveCompletedTasks]. Retorna la cantidad de tareas purgadas.
      */
-    suspend fun deleteCompletedTasks(): Result<Unit> = withContext(Dispatchers.IO) {
-        try {
-            taskDao.deleteCompletedTasks()
+    suspend fun purgeDeletedTasks(olderThanMillis: Long): Result<Int> {
+        return try {
+            val cutoff = System.currentTimeMillis() - olderThanMillis
+
+            var purgedCount = 0
+            while (true) {
+                currentCoroutineContext().ensureActive()
+                val purged = taskDao.purgeDeletedChunk(cutoff, PURGE_CHUNK_SIZE)
+                if (purged == 0) break
+                purgedCount += purged
+            }
+
+            Result.success(purgedCount)
+        } catch (e: Exception) {
+            Result.failure(e)
+        }
+    }
+
+    /**
+     * Elimina todas las tareas que ya han sido completadas, incluidas las archivadas.
+     */
+    suspend fun deleteCompletedTasks(): Result<Unit> {
+        return try {
+            database.withTransaction {
+                taskDao.deleteCompletedTasks()
+                taskDao.deleteArchivedTasks()
+            }
             Result.success(Unit)
         } catch (e: Exception) {
             Result.failure(e)
@@ -243,11 +492,14 @@ class TaskRepository @Inject constructor(
     }
 
     /**
-     * Elimina todas las tareas de la base de datos.
+     * Elimina todas las tareas de la base de datos, incluidas las archivadas.
      */
-    suspend fun deleteAllTasks(): Result<Unit> = withContext(Dispatchers.IO) {
-        try {
-            taskDao.deleteAllTasks()
+    suspend fun deleteAllTasks(): Result<Unit> {
+        return try {
+            database.withTransaction {
+                taskDao.deleteAllTasks()
+                taskDao.deleteArchivedTasks()
+            }
             Result.success(Unit)
         } catch (e: Exception) {
             Result.failure(e)
@@ -256,21 +508,39 @@ class TaskRepository @Inject constructor(
 
     /**
      * Actualiza el estado de las tareas vencidas (las que superaron su fecha límite).
+     *
+     * Se ejecuta con sentencias `UPDATE` en la base de datos, sin cargar las tareas
+     * en memoria; las vencidas cuya fecha límite ya no pasó vuelven a pendientes.
+     * Retorna la cantidad de tareas marcadas como vencidas.
      */
-    suspend fun updateOverdueTasks(): Result<Int> = withContext(Dispatchers.IO) {
-        try {
-            val currentTime = System.currentTimeMillis()
-            val tasks = taskDao.getAllTasks().value ?: emptyList()
+    suspend fun updateOverdueTasks(): Result<Int> {
+        return try {
+            val updatedCount = taskDao.refreshOverdueStatus(System.currentTimeMillis())
+            Result.success(updatedCount)
+        } catch (e: Exception) {
+            Result.failure(e)
+        }
+    }
 
-            var updatedCount = 0
-            tasks.forEach { task ->
-                if (task.isOverdue() && task.status == TaskStatus.PENDING) {
-                    taskDao.updateTaskStatus(task.id, TaskStatus.OVERDUE)
-                    updatedCount++
-                }
+    /**
+     * Mueve a `tasks_archive` las tareas completadas hace más de [olderThanDays] días.
+     *
+     * Se procesa en bloques de [ARCHIVE_CHUNK_SIZE], cada uno en su propia transacción,
+     * para no bloquear al escritor durante mucho tiempo. Retorna la cantidad archivada.
+     */
+    suspend fun archiveCompletedTasks(olderThanDays: Int): Result<Int> {
+        return try {
+            val cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(olderThanDays.toLong())
+
+            var archivedCount = 0
+            while (true) {
+                currentCoroutineContext().ensureActive()
+                val moved = taskDao.archiveCompletedChunk(cutoff, ARCHIVE_CHUNK_SIZE)
+                if (moved == 0) break
+                archivedCount += moved
             }
 
-            Result.success(updatedCount)
+            Result.success(archivedCount)
         } catch (e: Exception) {
             Result.failure(e)
         }
@@ -280,14 +550,34 @@ class TaskRepository @Inject constructor(
      * Calcula el porcentaje de tareas completadas sobre el total.
      * Retorna 0 si no hay tareas.
      */
-    suspend fun getCompletionPercentage(): Float = withContext(Dispatchers.IO) {
+    suspend fun getCompletionPercentage(): Float = withContext(DatabaseExecutors.analyticsDispatcher) {
         try {
-            val total = totalTasksCount.value ?: 0
-            val completed = completedTasksCount.value ?: 0
+            val total = totalTasksCount.first()
+            val completed = completedTasksCount.first()
 
             if (total == 0) 0f else (completed.toFloat() / total.toFloat()) * 100f
         } catch (e: Exception) {
             0f
         }
     }
+
+    companion object {
+        /** Cantidad de tareas por página. */
+        private const val PAGE_SIZE = 30
+
+        /** Distancia (en elementos) desde el borde a la que se precarga la siguiente página. */
+        private const val PREFETCH_DISTANCE = 15
+
+        /** Máximo de tareas retenidas en memoria antes de descartar páginas. */
+        private const val MAX_LOADED_ITEMS = 200
+
+        /** Tareas insertadas por bloque en las inserciones masivas. */
+        private const val BULK_INSERT_CHUNK_SIZE = 500
+
+        /** Tareas movidas al archivo por transacción. */
+        private const val ARCHIVE_CHUNK_SIZE = 500
+
+        /** Tareas eliminadas purgadas por transacción. */
+        private const val PURGE_CHUNK_SIZE = 500
+    }
 }
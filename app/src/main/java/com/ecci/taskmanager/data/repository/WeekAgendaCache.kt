@@ -0,0 +1,118 @@
+package com.ecci.taskmanager.data.repository
+
+import com.ecci.taskmanager.data.model.AgendaEntry
+import com.ecci.taskmanager.data.model.Task
+import com.ecci.taskmanager.data.model.WeekAgenda
+
+/**
+ * Caché de agendas semanales ([WeekAgenda]) con invalidación por día.
+ *
+ * Para cada semana ISO se conservan las tareas vistas y las entradas que cada una
+ * aporta a cada día. Al recibir una nueva lista de tareas solo se procesan las que
+ * cambiaron (insertadas, modificadas o eliminadas), y solo se vuelven a ordenar
+ * los días a los que aportaban o aportan entradas; los demás días conservan la
+ * misma lista, por lo que la interfaz tampoco los vuelve a comparar.
+ *
+ * Se conservan las últimas [MAX_WEEKS] semanas consultadas.
+ */
+class WeekAgendaCache {
+
+    private val weeks = object : LinkedHashMap<Long, WeekState>(MAX_WEEKS, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Long, WeekState>): Boolean {
+            return size > MAX_WEEKS
+        }
+    }
+
+    /**
+     * Actualiza la agenda de [week] con las tareas actuales de esa semana.
+     *
+     * @param week Semana ISO (ver [DayRange.isoWeek]).
+     * @param tasks Tareas recurrentes y tareas que vencen en la semana.
+     * @return La agenda de la semana.
+     */
+    @Synchronized
+    fun update(week: DayRange, tasks: List<Task>): WeekAgenda {
+        val state = weeks.getOrPut(week.start) { WeekState(week) }
+        return state.apply(tasks)
+    }
+
+    /** Elimina todas las semanas guardadas. */
+    @Synchronized
+    fun clear() {
+        weeks.clear()
+    }
+
+    /**
+     * Estado de una semana: tareas conocidas y entradas por día y por tarea.
+     */
+    private class WeekState(private val week: DayRange) {
+        private val dayStarts = DayRange.dayStarts(week.start, DAYS_PER_WEEK)
+        private val tasks = HashMap<Long, Task>()
+        private val entriesByDay = Array(DAYS_PER_WEEK) { HashMap<Long, List<AgendaEntry>>() }
+        private val days = Array<List<AgendaEntry>>(DAYS_PER_WEEK) { emptyList() }
+
+        fun apply(current: List<Task>): WeekAgenda {
+            val dirty = BooleanArray(DAYS_PER_WEEK)
+            val currentById = current.associateBy { it.id }
+
+            val removed = tasks.keys.filter { it !in currentById }
+            for (taskId in removed) {
+                tasks.remove(taskId)
+                detach(taskId, dirty)
+            }
+            for ((taskId, task) in currentById) {
+                if (tasks[taskId] == task) continue
+                tasks[taskId] = task
+                detach(taskId, dirty)
+                attach(task, dirty)
+            }
+
+            for (day in 0 until DAYS_PER_WEEK) {
+                if (dirty[day]) {
+                    days[day] = entriesByDay[day].values.flatten().sortedBy { it.start }
+                }
+            }
+            return WeekAgenda(week.start, dayStarts.toList(), days.toList())
+        }
+
+        private fun detach(taskId: Long, dirty: BooleanArray) {
+            for (day in 0 until DAYS_PER_WEEK) {
+                if (entriesByDay[day].remove(taskId) != null) dirty[day] = true
+            }
+        }
+
+        private fun attach(task: Task, dirty: BooleanArray) {
+            val byDay = HashMap<Int, MutableList<AgendaEntry>>()
+
+            if (task.isRecurring) {
+                RecurrenceSchedule.of(listOf(task)).forEachOccurrence(week) { _, start, end ->
+                    byDay.getOrPut(dayOf(start)) { mutableListOf() }
+                        .add(AgendaEntry(task.id, task.title, start, end, task.priority))
+                }
+            }
+            task.dueDate?.time?.takeIf { it in week.start..week.endInclusive }?.let { due ->
+                byDay.getOrPut(dayOf(due)) { mutableListOf() }
+                    .add(AgendaEntry(task.id, task.title, due, null, task.priority))
+            }
+
+            for ((day, entries) in byDay) {
+                entriesByDay[day][task.id] = entries
+                dirty[day] = true
+            }
+        }
+
+        /** Día de la semana (0 = lunes) que contiene [time]; se acota a la semana. */
+        private fun dayOf(time: Long): Int {
+            var day = 0
+            while (day + 1 < DAYS_PER_WEEK && dayStarts[day + 1] <= time) day++
+            return day
+        }
+    }
+
+    companion object {
+        private const val DAYS_PER_WEEK = 7
+
+        /** Semanas conservadas en caché. */
+        private const val MAX_WEEKS = 4
+    }
+}
@@ -5,19 +5,19 @@ import android.app.PendingIntent
 import android.content.Context
 import android.content.Intent
 import android.os.Build
-import com.ecci.taskmanager.data.model.Task
 import dagger.hilt.android.qualifiers.ApplicationContext
 import javax.inject.Inject
 
 /**
- * Clase encargada de programar y cancelar notificaciones asociadas a las tareas.
+ * Clase encargada de programar y cancelar la alarma de recordatorios.
  *
- * Utiliza el servicio del sistema [AlarmManager] para establecer alarmas
- * que activan un [BroadcastReceiver] en el momento indicado por el recordatorio
- * de la tarea.
+ * Utiliza el servicio del sistema [AlarmManager] para mantener **una sola**
+ * alarma exacta que activa el [TaskReminderReceiver] a la hora del próximo
+ * recordatorio pendiente. Todas las llamadas usan el mismo [PendingIntent],
+ * por lo que programar una nueva hora reemplaza la anterior.
  *
- * Esta clase se inyecta mediante Hilt y debe usarse desde repositorios o ViewModels
- * cuando una tarea con recordatorio se crea, actualiza o elimina.
+ * Qué hora programar lo decide [ReminderScheduler]; esta clase solo habla con
+ * el [AlarmManager].
  *
  * @property context Contexto de aplicación inyectado por Hilt.
  */
@@ -29,66 +29,55 @@ class NotificationHelper @Inject constructor(
     private val alarmManager = context.getSystemService(Context.ALARM_SERVICE) as AlarmManager
 
     /**
-     * Programa una notificación para una tarea que tenga un recordatorio activo.
+     * Programa (o reprograma) la alarma de recordatorios para [triggerAt].
      *
-     * Si la tarea no tiene recordatorio (`hasReminder == false`) o su hora
-     * de recordatorio (`reminderTime`) es nula, la función no realiza ninguna acción.
+     * Si la app no puede usar alarmas exactas (Android 12+ sin el permiso
+     * correspondiente), se programa una alarma inexacta en su lugar.
      *
-     * Internamente, crea un [PendingIntent] con los datos de la tarea y
-     * utiliza el [AlarmManager] para ejecutar un [BroadcastReceiver]
-     * en el momento exacto del recordatorio.
-     *
-     * @param task La tarea que contiene la información del recordatorio.
+     * @param triggerAt Hora en milisegundos en la que debe activarse la alarma.
      *
      * Ejemplo de uso:
      * ```kotlin
-     * notificationHelper.scheduleNotification(task)
+     * notificationHelper.scheduleReminderAlarm(task.reminderTime!!.time)
      * ```
      */
-    fun scheduleNotification(task: Task) {
-        if (!task.hasReminder || task.reminderTime == null) return
-
-        val intent = Intent(context, TaskReminderReceiver::class.java).apply {
-            putExtra("TASK_ID", task.id)
-            putExtra("TASK_TITLE", task.title)
-            putExtra("TASK_DESCRIPTION", task.description ?: "")
-        }
-
-        val pendingIntent = PendingIntent.getBroadcast(
-            context,
-            task.id.toInt(),
-            intent,
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                PendingIntent.FLAG_UPDATE_CURRENT or PendingIntent.FLAG_IMMUTABLE
-            } else {
-                PendingIntent.FLAG_UPDATE_CURRENT
-            }
-        )
+    fun scheduleReminderAlarm(triggerAt: Long) {
+        val pendingIntent = reminderPendingIntent()
 
         try {
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                alarmManager.setExactAndAllowWhileIdle(
-                    AlarmManager.RTC_WAKEUP,
-                    task.reminderTime!!.time,
-                    pendingIntent
-                )
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAt, pendingIntent)
             } else {
-                alarmManager.setExact(
-                    AlarmManager.RTC_WAKEUP,
-                    task.reminderTime!!.time,
-                    pendingIntent
-                )
+                alarmManager.setExact(AlarmManager.RTC_WAKEUP, triggerAt, pendingIntent)
             }
         } catch (e: SecurityException) {
             e.printStackTrace()
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAt, pendingIntent)
+            } else {
+                alarmManager.set(AlarmManager.RTC_WAKEUP, triggerAt, pendingIntent)
+            }
         }
     }
 
     /**
-     * Cancela una notificación programada previamente para una tarea específica.
+     * Cancela la alarma de recordatorios, si hay una programada.
      *
-     * Si existe una alarma activa para la tarea con el `taskId` indicado,
-     * esta será cancelada y no se activará en el futuro.
+     * Ejemplo de uso:
+     * ```kotlin
+     * notificationHelper.cancelReminderAlarm()
+     * ```
+     */
+    fun cancelReminderAlarm() {
+        alarmManager.cancel(reminderPendingIntent())
+    }
+
+    /**
+     * Cancela la alarma individual de una tarea, programada por versiones
+     * anteriores (una alarma por tarea, con el ID de la tarea como código de
+     * solicitud y sin acción).
+     *
+     * Si la tarea no tiene una alarma individual, la llamada no tiene efecto.
      *
      * @param taskId Identificador único de la tarea cuya notificación se desea cancelar.
      *
@@ -103,12 +92,39 @@ class NotificationHelper @Inject constructor(
             context,
             taskId.toInt(),
             intent,
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                PendingIntent.FLAG_NO_CREATE or PendingIntent.FLAG_IMMUTABLE
+            } else {
+                PendingIntent.FLAG_NO_CREATE
+            }
+        ) ?: return
+        alarmManager.cancel(pendingIntent)
+        pendingIntent.cancel()
+    }
+
+    /**
+     * [PendingIntent] único de la alarma de recordatorios: mismo código de
+     * solicitud y misma acción en todas las llamadas.
+     */
+    private fun reminderPendingIntent(): PendingIntent {
+        val intent = Intent(context, TaskReminderReceiver::class.java).apply {
+            action = TaskReminderReceiver.ACTION_DELIVER_REMINDERS
+        }
+
+        return PendingIntent.getBroadcast(
+            context,
+            REQUEST_CODE,
+            intent,
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
                 PendingIntent.FLAG_UPDATE_CURRENT or PendingIntent.FLAG_IMMUTABLE
             } else {
                 PendingIntent.FLAG_UPDATE_CURRENT
             }
         )
-        alarmManager.cancel(pendingIntent)
+    }
+
+    companion object {
+        /** Código de solicitud del único [PendingIntent] de recordatorios. */
+        private const val REQUEST_CODE = 0
     }
 }
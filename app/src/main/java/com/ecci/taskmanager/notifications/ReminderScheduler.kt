@@ -0,0 +1,177 @@
+package com.ecci.taskmanager.notifications
+
+import android.content.Context
+import androidx.room.InvalidationTracker
+import com.ecci.taskmanager.data.dao.TaskDao
+import com.ecci.taskmanager.data.database.AppDatabase
+import com.ecci.taskmanager.data.model.Task
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import timber.log.Timber
+import java.util.concurrent.atomic.AtomicBoolean
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Planificador de recordatorios con una sola alarma.
+ *
+ * En lugar de una alarma por tarea, se mantiene armada únicamente la del
+ * recordatorio pendiente más próximo ([TaskDao.getNextReminderTime], que usa el
+ * índice (hasReminder, reminderTime)). Cuando la alarma se activa,
+ * [deliverDueReminders] entrega todos los recordatorios vencidos desde la última
+ * entrega y vuelve a armar la alarma para el siguiente.
+ *
+ * La última entrega se guarda en preferencias, así un recordatorio no se repite
+ * aunque la alarma se active tarde o el proceso se reinicie.
+ *
+ * Al iniciar por primera vez se cancelan las alarmas por tarea que programaban
+ * las versiones anteriores, para que no dupliquen las notificaciones.
+ *
+ * Tras [start], cualquier escritura en `tasks` (crear, editar, completar o
+ * eliminar) vuelve a calcular la alarma mediante el `InvalidationTracker` de Room.
+ */
+@Singleton
+class ReminderScheduler @Inject constructor(
+    @ApplicationContext context: Context,
+    private val database: AppDatabase,
+    private val taskDao: TaskDao,
+    private val notificationHelper: NotificationHelper
+) {
+
+    private val preferences = context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE)
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    /** Serializa las reconciliaciones y entregas. */
+    private val mutex = Mutex()
+
+    /** Hora de la alarma armada actualmente; evita reprogramarla si no cambia. */
+    private var armedAt: Long? = null
+
+    private val started = AtomicBoolean(false)
+
+    private val observer = object : InvalidationTracker.Observer("tasks") {
+        override fun onInvalidated(tables: Set<String>) {
+            scope.launch { reconcile() }
+        }
+    }
+
+    /**
+     * Empieza a observar la tabla de tareas y arma la alarma inicial.
+     * Las llamadas posteriores no tienen efecto.
+     */
+    fun start() {
+        if (!started.compareAndSet(false, true)) return
+        database.invalidationTracker.addObserver(observer)
+        scope.launch {
+            cancelLegacyAlarms()
+            reconcile()
+        }
+    }
+
+    /**
+     * Arma la alarma para el próximo recordatorio posterior a la última entrega,
+     * o la cancela si no queda ninguno.
+     */
+    suspend fun reconcile() {
+        mutex.withLock {
+            armNext(deliveredUntil())
+        }
+    }
+
+    /**
+     * Obtiene los recordatorios vencidos desde la última entrega hasta [now],
+     * registra la entrega y arma la alarma para el siguiente.
+     *
+     * @param now Instante de la entrega en milisegundos.
+     * @return Tareas cuyo recordatorio debe notificarse, en orden de hora.
+     */
+    suspend fun deliverDueReminders(now: Long = System.currentTimeMillis()): List<Task> {
+        return mutex.withLock {
+            val from = deliveredUntil()
+            val due = if (now > from) taskDao.getDueReminders(from, now) else emptyList()
+            val until = maxOf(from, now)
+            preferences.edit().putLong(KEY_DELIVERED_UNTIL, until).apply()
+            // La alarma que llamó a este método ya se consumió
+            armedAt = null
+            armNext(until)
+            due
+        }
+    }
+
+    /**
+     * Lanza [reconcile] en segundo plano; [onFinished] se llama siempre al terminar.
+     */
+    fun reconcileAsync(onFinished: () -> Unit) {
+        scope.launch {
+            try {
+                reconcile()
+            } catch (e: Exception) {
+                Timber.e(e, "Error al reprogramar la alarma de recordatorios")
+            } finally {
+                onFinished()
+            }
+        }
+    }
+
+    /**
+     * Lanza [deliverDueReminders] en segundo plano y pasa el resultado a [onDue].
+     * [onFinished] se llama siempre al terminar.
+     */
+    fun deliverDueRemindersAsync(onDue: (List<Task>) -> Unit, onFinished: () -> Unit) {
+        scope.launch {
+            try {
+                onDue(deliverDueReminders())
+            } catch (e: Exception) {
+                Timber.e(e, "Error al entregar recordatorios")
+            } finally {
+                onFinished()
+            }
+        }
+    }
+
+    private suspend fun armNext(after: Long) {
+        val next = taskDao.getNextReminderTime(after)
+        if (next == armedAt) return
+
+        if (next == null) {
+            notificationHelper.cancelReminderAlarm()
+        } else {
+            notificationHelper.scheduleReminderAlarm(next)
+        }
+        armedAt = next
+        Timber.d("Próximo recordatorio: $next")
+    }
+
+    /**
+     * Cancela, una sola vez, las alarmas individuales de todas las tareas
+     * (ver [NotificationHelper.cancelNotification]).
+     */
+    private suspend fun cancelLegacyAlarms() {
+        if (preferences.getBoolean(KEY_LEGACY_ALARMS_CANCELLED, false)) return
+        taskDao.getAllTaskIds().forEach(notificationHelper::cancelNotification)
+        preferences.edit().putBoolean(KEY_LEGACY_ALARMS_CANCELLED, true).apply()
+    }
+
+    /**
+     * Instante hasta el que ya se entregaron los recordatorios. La primera vez es
+     * el momento actual, para no notificar recordatorios antiguos.
+     */
+    private fun deliveredUntil(): Long {
+        if (!preferences.contains(KEY_DELIVERED_UNTIL)) {
+            preferences.edit().putLong(KEY_DELIVERED_UNTIL, System.currentTimeMillis()).apply()
+        }
+        return preferences.getLong(KEY_DELIVERED_UNTIL, 0L)
+    }
+
+    companion object {
+        private const val PREFERENCES_NAME = "reminder_scheduler"
+        private const val KEY_DELIVERED_UNTIL = "delivered_until"
+        private const val KEY_LEGACY_ALARMS_CANCELLED = "legacy_alarms_cancelled"
+    }
+}
@@ -13,48 +13,65 @@ import androidx.core.app.NotificationCompat
 import androidx.core.app.NotificationManagerCompat
 import com.ecci.taskmanager.R
 import com.ecci.taskmanager.ui.MainActivity
+import dagger.hilt.android.AndroidEntryPoint
+import javax.inject.Inject
 
 /**
- * [BroadcastReceiver] responsable de mostrar una notificación cuando se activa
- * un recordatorio de tarea programado por el [NotificationHelper].
+ * [BroadcastReceiver] responsable de mostrar las notificaciones cuando se activa
+ * la alarma de recordatorios programada por el [NotificationHelper].
  *
- * Este receptor se ejecuta en segundo plano cuando el sistema dispara la alarma
- * configurada para una tarea con recordatorio activo.
+ * Este receptor se ejecuta en segundo plano cuando el sistema dispara la única
+ * alarma de recordatorios; el [ReminderScheduler] indica qué tareas vencieron.
  *
  * Funcionalidades:
  * - Crea el canal de notificación si no existe (en Android 8.0+).
- * - Muestra una notificación con el título y descripción de la tarea.
+ * - Muestra una notificación por cada tarea con recordatorio vencido.
+ * - Vuelve a armar la alarma para el siguiente recordatorio.
  * - Permite abrir la aplicación al tocar la notificación.
  *
  * Requiere el permiso [Manifest.permission.POST_NOTIFICATIONS] en Android 13 (Tiramisu) o superior.
  */
+@AndroidEntryPoint
 class TaskReminderReceiver : BroadcastReceiver() {
 
+    @Inject
+    lateinit var reminderScheduler: ReminderScheduler
+
     /**
      * Método principal que se ejecuta automáticamente cuando se recibe el evento
      * del sistema (la alarma del recordatorio de tarea).
      *
-     * Recupera los datos de la tarea enviados desde el [NotificationHelper]
-     * y muestra la notificación al usuario.
+     * Con la acción [ACTION_DELIVER_REMINDERS] consulta en segundo plano los
+     * recordatorios vencidos (ver [ReminderScheduler.deliverDueReminders]) y
+     * muestra una notificación por cada uno.
+     *
+     * Las alarmas por tarea programadas por versiones anteriores llegan sin
+     * acción; no se muestran (el recordatorio lo entrega la alarma única), solo
+     * se reconcilia la alarma (ver [ReminderScheduler.reconcile]).
      *
      * @param context Contexto del sistema proporcionado por Android.
-     * @param intent Intent que contiene los extras con la información de la tarea:
-     *  - `"TASK_ID"`: Identificador único de la tarea.
-     *  - `"TASK_TITLE"`: Título de la tarea.
-     *  - `"TASK_DESCRIPTION"`: Descripción o detalles de la tarea.
+     * @param intent Intent recibido de la alarma.
      */
     override fun onReceive(context: Context?, intent: Intent?) {
         if (context == null || intent == null) return
 
-        val taskId = intent.getLongExtra("TASK_ID", 0)
-        val taskTitle = intent.getStringExtra("TASK_TITLE") ?: "Tarea"
-        val taskDescription = intent.getStringExtra("TASK_DESCRIPTION") ?: ""
+        val pendingResult = goAsync()
+        if (intent.action != ACTION_DELIVER_REMINDERS) {
+            reminderScheduler.reconcileAsync(onFinished = { pendingResult.finish() })
+            return
+        }
 
         // Crear el canal de notificación si aún no existe
         createNotificationChannel(context)
 
-        // Mostrar la notificación con los datos de la tarea
-        showNotification(context, taskId, taskTitle, taskDescription)
+        reminderScheduler.deliverDueRemindersAsync(
+            onDue = { tasks ->
+                tasks.forEach { task ->
+                    showNotification(context, task.id, task.title, task.description ?: "")
+                }
+            },
+            onFinished = { pendingResult.finish() }
+        )
     }
 
     /**
@@ -138,6 +155,9 @@ class TaskReminderReceiver : BroadcastReceiver() {
     }
 
     companion object {
+        /** Acción de la alarma única de recordatorios (ver [NotificationHelper]). */
+        const val ACTION_DELIVER_REMINDERS = "com.ecci.taskmanager.action.DELIVER_REMINDERS"
+
         /** ID del canal de notificación usado para todos los recordatorios de tareas. */
         private const val CHANNEL_ID = "task_reminders"
     }
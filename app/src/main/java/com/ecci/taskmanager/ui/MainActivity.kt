@@ -68,6 +68,8 @@ class MainActivity : AppCompatActivity() {
                 R.id.nav_tasks,
                 R.id.nav_categories,
                 R.id.nav_statistics,
+                R.id.nav_agenda,
+                R.id.nav_history,
                 R.id.nav_settings
             ),
             binding.drawerLayout
@@ -93,6 +95,16 @@ class MainActivity : AppCompatActivity() {
                     binding.drawerLayout.closeDrawers()
                     true
                 }
+                R.id.nav_agenda -> {
+                    navController.navigate(R.id.nav_agenda)
+                    binding.drawerLayout.closeDrawers()
+                    true
+                }
+                R.id.nav_history -> {
+                    navController.navigate(R.id.nav_history)
+                    binding.drawerLayout.closeDrawers()
+                    true
+                }
                 R.id.nav_settings -> {
                     navController.navigate(R.id.nav_settings)
                     binding.drawerLayout.closeDrawers()
@@ -111,6 +123,7 @@ class MainActivity : AppCompatActivity() {
         navController.addOnDestinationChangedListener { _, destination, _ ->
             when (destination.id) {
                 R.id.nav_task_detail -> binding.fab.hide()
+                R.id.nav_history -> binding.fab.hide()
                 R.id.nav_settings -> binding.fab.hide()
                 else -> binding.fab.show()
             }
@@ -0,0 +1,128 @@
+package com.ecci.taskmanager.ui.adapters
+
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import androidx.core.content.ContextCompat
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.ListAdapter
+import androidx.recyclerview.widget.RecyclerView
+import com.ecci.taskmanager.R
+import com.ecci.taskmanager.data.model.AgendaEntry
+import com.ecci.taskmanager.data.model.Priority
+import com.ecci.taskmanager.data.model.WeekAgenda
+import com.ecci.taskmanager.databinding.ItemAgendaDayBinding
+import com.ecci.taskmanager.databinding.ItemAgendaEntryBinding
+import java.text.SimpleDateFormat
+import java.util.*
+
+/**
+ * Fila de la agenda: encabezado de día o entrada.
+ */
+sealed class AgendaRow {
+    data class Day(val dayStart: Long, val isEmpty: Boolean) : AgendaRow()
+    data class Entry(val entry: AgendaEntry) : AgendaRow()
+
+    companion object {
+        /**
+         * Aplana una [WeekAgenda] en filas: cada día seguido de sus entradas.
+         */
+        fun of(agenda: WeekAgenda): List<AgendaRow> {
+            val rows = ArrayList<AgendaRow>(agenda.days.sumOf { it.size } + agenda.days.size)
+            agenda.days.forEachIndexed { index, entries ->
+                rows += Day(agenda.dayStarts[index], entries.isEmpty())
+                entries.mapTo(rows) { Entry(it) }
+            }
+            return rows
+        }
+    }
+}
+
+/**
+ * Adaptador de la agenda semanal. Muestra un encabezado por día y, debajo,
+ * sus tareas con la hora de inicio (y fin, si es un horario recurrente).
+ */
+class AgendaAdapter(
+    private val onEntryClick: (AgendaEntry) -> Unit
+) : ListAdapter<AgendaRow, RecyclerView.ViewHolder>(AgendaDiffCallback()) {
+
+    private val dayFormat = SimpleDateFormat("EEEE d 'de' MMMM", Locale.getDefault())
+    private val timeFormat = SimpleDateFormat("HH:mm", Locale.getDefault())
+
+    override fun getItemViewType(position: Int): Int = when (getItem(position)) {
+        is AgendaRow.Day -> VIEW_TYPE_DAY
+        is AgendaRow.Entry -> VIEW_TYPE_ENTRY
+    }
+
+    override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): RecyclerView.ViewHolder {
+        val inflater = LayoutInflater.from(parent.context)
+        return if (viewType == VIEW_TYPE_DAY) {
+            DayViewHolder(ItemAgendaDayBinding.inflate(inflater, parent, false))
+        } else {
+            EntryViewHolder(ItemAgendaEntryBinding.inflate(inflater, parent, false))
+        }
+    }
+
+    override fun onBindViewHolder(holder: RecyclerView.ViewHolder, position: Int) {
+        when (val row = getItem(position)) {
+            is AgendaRow.Day -> (holder as DayViewHolder).bind(row)
+            is AgendaRow.Entry -> (holder as EntryViewHolder).bind(row.entry)
+        }
+    }
+
+    inner class DayViewHolder(
+        private val binding: ItemAgendaDayBinding
+    ) : RecyclerView.ViewHolder(binding.root) {
+
+        fun bind(row: AgendaRow.Day) {
+            binding.textAgendaDay.text = dayFormat.format(Date(row.dayStart))
+                .replaceFirstChar { it.titlecase(Locale.getDefault()) }
+            binding.textAgendaDayEmpty.visibility = if (row.isEmpty) View.VISIBLE else View.GONE
+        }
+    }
+
+    inner class EntryViewHolder(
+        private val binding: ItemAgendaEntryBinding
+    ) : RecyclerView.ViewHolder(binding.root) {
+
+        fun bind(entry: AgendaEntry) {
+            binding.apply {
+                textAgendaTitle.text = entry.title
+                textAgendaTime.text = entry.end?.let {
+                    "${timeFormat.format(Date(entry.start))} - ${timeFormat.format(Date(it))}"
+                } ?: timeFormat.format(Date(entry.start))
+                val color = when (entry.priority) {
+                    Priority.HIGH -> R.color.priority_high
+                    Priority.MEDIUM -> R.color.priority_medium
+                    Priority.LOW -> R.color.priority_low
+                }
+                viewAgendaPriority.setBackgroundColor(ContextCompat.getColor(root.context, color))
+                root.setOnClickListener { onEntryClick(entry) }
+            }
+        }
+    }
+
+    /**
+     * Los días se identifican por su inicio y las entradas por tarea e inicio.
+     */
+    class AgendaDiffCallback : DiffUtil.ItemCallback<AgendaRow>() {
+        override fun areItemsTheSame(oldItem: AgendaRow, newItem: AgendaRow): Boolean {
+            return when {
+                oldItem is AgendaRow.Day && newItem is AgendaRow.Day ->
+                    oldItem.dayStart == newItem.dayStart
+                oldItem is AgendaRow.Entry && newItem is AgendaRow.Entry ->
+                    oldItem.entry.taskId == newItem.entry.taskId && oldItem.entry.start == newItem.entry.start
+                else -> false
+            }
+        }
+
+        override fun areContentsTheSame(oldItem: AgendaRow, newItem: AgendaRow): Boolean {
+            return oldItem == newItem
+        }
+    }
+
+    companion object {
+        private const val VIEW_TYPE_DAY = 0
+        private const val VIEW_TYPE_ENTRY = 1
+    }
+}
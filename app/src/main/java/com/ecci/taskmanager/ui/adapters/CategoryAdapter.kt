@@ -0,0 +1,74 @@
+package com.ecci.taskmanager.ui.adapters
+
+import android.graphics.Color
+import android.view.LayoutInflater
+import android.view.ViewGroup
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.ListAdapter
+import androidx.recyclerview.widget.RecyclerView
+import com.ecci.taskmanager.data.model.CategoryWithCount
+import com.ecci.taskmanager.databinding.ItemCategoryBinding
+
+/**
+ * Adaptador para mostrar las categorías y su número de tareas en un [RecyclerView].
+ *
+ * Utiliza [ListAdapter] con [DiffUtil], de modo que al cambiar un conteo solo
+ * se vuelve a dibujar la fila afectada.
+ */
+class CategoryAdapter : ListAdapter<CategoryWithCount, CategoryAdapter.CategoryViewHolder>(
+    CategoryDiffCallback()
+) {
+
+    override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): CategoryViewHolder {
+        val binding = ItemCategoryBinding.inflate(
+            LayoutInflater.from(parent.context),
+            parent,
+            false
+        )
+        return CategoryViewHolder(binding)
+    }
+
+    override fun onBindViewHolder(holder: CategoryViewHolder, position: Int) {
+        holder.bind(getItem(position))
+    }
+
+    /**
+     * ViewHolder que representa una categoría con su conteo de tareas.
+     */
+    class CategoryViewHolder(
+        private val binding: ItemCategoryBinding
+    ) : RecyclerView.ViewHolder(binding.root) {
+
+        fun bind(item: CategoryWithCount) {
+            binding.apply {
+                textCategoryName.text = item.category.name
+                textCategoryCount.text = "${item.taskCount} tareas"
+                viewCategoryColor.setBackgroundColor(parseColor(item.category.color))
+            }
+        }
+
+        /**
+         * Convierte el color hexadecimal de la categoría; usa gris si no es válido.
+         */
+        private fun parseColor(color: String): Int {
+            return try {
+                Color.parseColor(color)
+            } catch (e: IllegalArgumentException) {
+                Color.DKGRAY
+            }
+        }
+    }
+
+    /**
+     * Compara categorías por ID y por contenido (incluido el conteo).
+     */
+    class CategoryDiffCallback : DiffUtil.ItemCallback<CategoryWithCount>() {
+        override fun areItemsTheSame(oldItem: CategoryWithCount, newItem: CategoryWithCount): Boolean {
+            return oldItem.category.id == newItem.category.id
+        }
+
+        override fun areContentsTheSame(oldItem: CategoryWithCount, newItem: CategoryWithCount): Boolean {
+            return oldItem == newItem
+        }
+    }
+}
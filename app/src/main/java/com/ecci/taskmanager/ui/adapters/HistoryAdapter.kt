@@ -0,0 +1,71 @@
+package com.ecci.taskmanager.ui.adapters
+
+import android.view.LayoutInflater
+import android.view.ViewGroup
+import androidx.core.content.ContextCompat
+import androidx.paging.PagingDataAdapter
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.RecyclerView
+import com.ecci.taskmanager.R
+import com.ecci.taskmanager.data.model.CompletedTaskItem
+import com.ecci.taskmanager.data.model.Priority
+import com.ecci.taskmanager.databinding.ItemHistoryBinding
+import java.text.SimpleDateFormat
+import java.util.*
+
+/**
+ * Adaptador paginado para el historial de tareas completadas ([CompletedTaskItem]).
+ */
+class HistoryAdapter : PagingDataAdapter<CompletedTaskItem, HistoryAdapter.HistoryViewHolder>(
+    HistoryDiffCallback()
+) {
+
+    override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): HistoryViewHolder {
+        val binding = ItemHistoryBinding.inflate(
+            LayoutInflater.from(parent.context),
+            parent,
+            false
+        )
+        return HistoryViewHolder(binding)
+    }
+
+    override fun onBindViewHolder(holder: HistoryViewHolder, position: Int) {
+        getItem(position)?.let { holder.bind(it) }
+    }
+
+    /**
+     * ViewHolder que muestra el título, la fecha de finalización y la prioridad.
+     */
+    class HistoryViewHolder(
+        private val binding: ItemHistoryBinding
+    ) : RecyclerView.ViewHolder(binding.root) {
+
+        private val dateFormat = SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault())
+
+        fun bind(item: CompletedTaskItem) {
+            binding.apply {
+                textHistoryTitle.text = item.title
+                textHistoryCompletedAt.text = dateFormat.format(item.completedAt)
+                val color = when (item.priority) {
+                    Priority.HIGH -> R.color.priority_high
+                    Priority.MEDIUM -> R.color.priority_medium
+                    Priority.LOW -> R.color.priority_low
+                }
+                viewHistoryPriority.setBackgroundColor(ContextCompat.getColor(root.context, color))
+            }
+        }
+    }
+
+    /**
+     * Compara las filas por ID y por contenido.
+     */
+    class HistoryDiffCallback : DiffUtil.ItemCallback<CompletedTaskItem>() {
+        override fun areItemsTheSame(oldItem: CompletedTaskItem, newItem: CompletedTaskItem): Boolean {
+            return oldItem.id == newItem.id
+        }
+
+        override fun areContentsTheSame(oldItem: CompletedTaskItem, newItem: CompletedTaskItem): Boolean {
+            return oldItem == newItem
+        }
+    }
+}
@@ -1,40 +1,61 @@
 package com.ecci.taskmanager.ui.adapters
 
+import android.content.res.ColorStateList
+import android.graphics.Color
 import android.graphics.Paint
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
 import androidx.core.content.ContextCompat
+import androidx.paging.PagingDataAdapter
 import androidx.recyclerview.widget.DiffUtil
-import androidx.recyclerview.widget.ListAdapter
 import androidx.recyclerview.widget.RecyclerView
 import com.ecci.taskmanager.R
 import com.ecci.taskmanager.data.model.Priority
-import com.ecci.taskmanager.data.model.Task
+import com.ecci.taskmanager.data.model.Tag
+import com.ecci.taskmanager.data.model.TaskListItem
 import com.ecci.taskmanager.data.model.TaskStatus
+import com.ecci.taskmanager.data.model.TaskWithTags
 import com.ecci.taskmanager.databinding.ItemTaskBinding
+import com.google.android.material.chip.Chip
 import java.text.SimpleDateFormat
 import java.util.*
 
 /**
- * Adaptador para mostrar una lista de [Task] en un [RecyclerView].
+ * Adaptador para mostrar una lista paginada de tareas ([TaskListItem]) en un [RecyclerView].
  *
- * Este adaptador utiliza [ListAdapter] con [DiffUtil] para optimizar actualizaciones
- * en la lista y mejorar el rendimiento al renderizar elementos.
+ * Este adaptador utiliza [PagingDataAdapter] con [DiffUtil], de modo que solo se
+ * cargan y comparan las páginas cercanas al área visible. Mientras una página se
+ * carga, sus posiciones se muestran como marcadores de posición vacíos.
  *
  * Permite:
  * - Mostrar título, descripción, fecha de vencimiento y prioridad de cada tarea.
  * - Reflejar el estado de completado mediante tachado de texto y opacidad.
  * - Mostrar un ícono de recordatorio si la tarea tiene uno activo.
+ * - Mostrar las etiquetas de la tarea como chips, resueltas con [setTags].
  * - Detectar clics y cambios en el estado de la tarea (checkbox).
  *
  * @param onTaskClick Callback que se ejecuta al hacer clic en una tarea.
  * @param onTaskCheckChanged Callback que se ejecuta cuando se marca o desmarca una tarea como completada.
  */
 class TaskAdapter(
-    private val onTaskClick: (Task) -> Unit,
-    private val onTaskCheckChanged: (Task, Boolean) -> Unit
-) : ListAdapter<Task, TaskAdapter.TaskViewHolder>(TaskDiffCallback()) {
+    private val onTaskClick: (TaskListItem) -> Unit,
+    private val onTaskCheckChanged: (TaskListItem, Boolean) -> Unit
+) : PagingDataAdapter<TaskWithTags, TaskAdapter.TaskViewHolder>(TaskDiffCallback()) {
+
+    /** Etiquetas conocidas indexadas por ID; las filas solo traen los IDs. */
+    private var tagsById: Map<Long, Tag> = emptyMap()
+
+    /**
+     * Actualiza el mapa de etiquetas usado para dibujar los chips.
+     *
+     * @param tags Etiquetas indexadas por su ID.
+     */
+    fun setTags(tags: Map<Long, Tag>) {
+        if (tags == tagsById) return
+        tagsById = tags
+        notifyItemRangeChanged(0, itemCount)
+    }
 
     /**
      * Crea un nuevo [TaskViewHolder] inflando el layout XML correspondiente al ítem de tarea.
@@ -50,9 +71,16 @@ class TaskAdapter(
 
     /**
      * Asigna los datos de una tarea específica al ViewHolder correspondiente.
+     * Si la página aún no está cargada, se muestra un marcador de posición.
      */
     override fun onBindViewHolder(holder: TaskViewHolder, position: Int) {
-        holder.bind(getItem(position))
+        val item = getItem(position)
+        if (item != null) {
+            holder.bind(item.task)
+            holder.bindTags(item.tagIds)
+        } else {
+            holder.bindPlaceholder()
+        }
     }
 
     /**
@@ -64,7 +92,7 @@ class TaskAdapter(
     ) : RecyclerView.ViewHolder(binding.root) {
 
         /**
-         * Vincula los datos de una [Task] a los elementos de la interfaz de usuario.
+         * Vincula los datos de una [TaskListItem] a los elementos de la interfaz de usuario.
          *
          * Se encarga de:
          * - Mostrar título y descripción (oculta si está vacía).
@@ -72,19 +100,19 @@ class TaskAdapter(
          * - Aplicar efectos visuales según el estado.
          * - Mostrar prioridad, fecha de vencimiento y recordatorio.
          *
-         * @param task Objeto [Task] que contiene la información de la tarea.
+         * @param task Fila [TaskListItem] con la información de la tarea.
          */
-        fun bind(task: Task) {
+        fun bind(task: TaskListItem) {
             binding.apply {
                 // Título
                 textTaskTitle.text = task.title
 
-                // Descripción (oculta si está vacía)
-                if (task.description.isNullOrBlank()) {
+                // Descripción (oculta si está vacía; llega truncada desde la consulta)
+                if (task.descriptionPreview.isNullOrBlank()) {
                     textTaskDescription.visibility = View.GONE
                 } else {
                     textTaskDescription.visibility = View.VISIBLE
-                    textTaskDescription.text = task.description
+                    textTaskDescription.text = task.descriptionPreview
                 }
 
                 // Evitar llamadas dobles al listener del checkbox
@@ -98,13 +126,13 @@ class TaskAdapter(
                 if (task.status == TaskStatus.COMPLETED) {
                     textTaskTitle.paintFlags = textTaskTitle.paintFlags or Paint.STRIKE_THRU_TEXT_FLAG
                     textTaskTitle.alpha = 0.5f
-                    if (!task.description.isNullOrBlank()) {
+                    if (!task.descriptionPreview.isNullOrBlank()) {
                         textTaskDescription.alpha = 0.5f
                     }
                 } else {
                     textTaskTitle.paintFlags = textTaskTitle.paintFlags and Paint.STRIKE_THRU_TEXT_FLAG.inv()
                     textTaskTitle.alpha = 1.0f
-                    if (!task.description.isNullOrBlank()) {
+                    if (!task.descriptionPreview.isNullOrBlank()) {
                         textTaskDescription.alpha = 1.0f
                     }
                 }
@@ -141,6 +169,68 @@ class TaskAdapter(
             }
         }
 
+        /**
+         * Muestra un elemento vacío mientras se carga la página correspondiente.
+         */
+        fun bindPlaceholder() {
+            binding.apply {
+                textTaskTitle.text = ""
+                textTaskDescription.visibility = View.GONE
+                textDueDate.visibility = View.GONE
+                iconReminder.visibility = View.GONE
+                chipGroupTags.visibility = View.GONE
+                checkboxTask.setOnCheckedChangeListener(null)
+                checkboxTask.isChecked = false
+                root.setOnClickListener(null)
+            }
+        }
+
+        /**
+         * Muestra un chip por cada etiqueta de la tarea.
+         *
+         * Los nombres y colores se toman del mapa en memoria, sin consultar la base
+         * de datos; los chips ya creados se reutilizan entre filas.
+         *
+         * @param tagIds IDs de las etiquetas asociadas a la tarea.
+         */
+        fun bindTags(tagIds: List<Long>) {
+            val tags = tagIds.mapNotNull { tagsById[it] }
+            val chipGroup = binding.chipGroupTags
+
+            if (tags.isEmpty()) {
+                chipGroup.visibility = View.GONE
+                return
+            }
+
+            chipGroup.visibility = View.VISIBLE
+            while (chipGroup.childCount > tags.size) {
+                chipGroup.removeViewAt(chipGroup.childCount - 1)
+            }
+            tags.forEachIndexed { index, tag ->
+                val chip = chipGroup.getChildAt(index) as? Chip
+                    ?: Chip(chipGroup.context).apply {
+                        isClickable = false
+                        isCheckable = false
+                        setEnsureMinTouchTargetSize(false)
+                        chipGroup.addView(this)
+                    }
+                chip.text = tag.name
+                chip.chipBackgroundColor = ColorStateList.valueOf(parseTagColor(tag.color))
+                chip.setTextColor(Color.WHITE)
+            }
+        }
+
+        /**
+         * Convierte el color hexadecimal de una etiqueta; usa gris si no es válido.
+         */
+        private fun parseTagColor(color: String): Int {
+            return try {
+                Color.parseColor(color)
+            } catch (e: IllegalArgumentException) {
+                Color.DKGRAY
+            }
+        }
+
         /**
          * Cambia el color del indicador de prioridad según el nivel asignado.
          *
@@ -160,14 +250,14 @@ class TaskAdapter(
      * Implementación de [DiffUtil.ItemCallback] para detectar eficientemente
      * los cambios entre listas de tareas y actualizar solo los elementos necesarios.
      */
-    class TaskDiffCallback : DiffUtil.ItemCallback<Task>() {
+    class TaskDiffCallback : DiffUtil.ItemCallback<TaskWithTags>() {
         /** Compara si dos tareas representan el mismo elemento (por ID). */
-        override fun areItemsTheSame(oldItem: Task, newItem: Task): Boolean {
-            return oldItem.id == newItem.id
+        override fun areItemsTheSame(oldItem: TaskWithTags, newItem: TaskWithTags): Boolean {
+            return oldItem.task.id == newItem.task.id
         }
 
-        /** Compara si el contenido completo de dos tareas es el mismo. */
-        override fun areContentsTheSame(oldItem: Task, newItem: Task): Boolean {
+        /** Compara si el contenido mostrado de dos tareas (incluidas sus etiquetas) es el mismo. */
+        override fun areContentsTheSame(oldItem: TaskWithTags, newItem: TaskWithTags): Boolean {
             return oldItem == newItem
         }
     }
@@ -0,0 +1,81 @@
+package com.ecci.taskmanager.ui.fragments
+
+import android.os.Bundle
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import androidx.core.os.bundleOf
+import androidx.fragment.app.Fragment
+import androidx.fragment.app.viewModels
+import androidx.navigation.fragment.findNavController
+import androidx.recyclerview.widget.LinearLayoutManager
+import com.ecci.taskmanager.R
+import com.ecci.taskmanager.databinding.FragmentAgendaBinding
+import com.ecci.taskmanager.ui.adapters.AgendaAdapter
+import com.ecci.taskmanager.ui.adapters.AgendaRow
+import com.ecci.taskmanager.ui.viewmodel.TaskViewModel
+import dagger.hilt.android.AndroidEntryPoint
+
+/**
+ * Fragmento que muestra la agenda de la semana en curso (lunes a domingo).
+ *
+ * La agenda llega ya agrupada por día y ordenada desde
+ * [com.ecci.taskmanager.data.repository.WeekAgendaCache], por lo que la pantalla
+ * solo la aplana en filas y la entrega al adaptador.
+ */
+@AndroidEntryPoint
+class AgendaFragment : Fragment() {
+
+    /** Binding para acceder a las vistas del layout XML de este fragmento. */
+    private var _binding: FragmentAgendaBinding? = null
+    private val binding get() = _binding!!
+
+    private val viewModel: TaskViewModel by viewModels()
+
+    /** Adaptador de días y entradas de la agenda. */
+    private lateinit var agendaAdapter: AgendaAdapter
+
+    override fun onCreateView(
+        inflater: LayoutInflater,
+        container: ViewGroup?,
+        savedInstanceState: Bundle?
+    ): View {
+        _binding = FragmentAgendaBinding.inflate(inflater, container, false)
+        return binding.root
+    }
+
+    override fun onViewCreated(view: View, savedInstanceState: Bundle?) {
+        super.onViewCreated(view, savedInstanceState)
+        setupRecyclerView()
+        observeAgenda()
+    }
+
+    private fun setupRecyclerView() {
+        agendaAdapter = AgendaAdapter { entry ->
+            findNavController().navigate(
+                R.id.action_to_task_detail,
+                bundleOf("taskId" to entry.taskId)
+            )
+        }
+        binding.recyclerViewAgenda.apply {
+            layoutManager = LinearLayoutManager(context)
+            adapter = agendaAdapter
+        }
+    }
+
+    private fun observeAgenda() {
+        viewModel.weekAgenda.observe(viewLifecycleOwner) { agenda ->
+            agendaAdapter.submitList(AgendaRow.of(agenda))
+            binding.emptyStateAgenda.visibility = if (agenda.isEmpty()) View.VISIBLE else View.GONE
+        }
+    }
+
+    /**
+     * Libera los recursos del binding cuando la vista es destruida
+     * para evitar fugas de memoria.
+     */
+    override fun onDestroyView() {
+        super.onDestroyView()
+        _binding = null
+    }
+}
@@ -8,19 +8,19 @@ import androidx.fragment.app.Fragment
 import androidx.fragment.app.viewModels
 import androidx.recyclerview.widget.LinearLayoutManager
 import com.ecci.taskmanager.databinding.FragmentCategoryBinding
+import com.ecci.taskmanager.ui.adapters.CategoryAdapter
 import com.ecci.taskmanager.ui.viewmodel.CategoryViewModel
-import com.ecci.taskmanager.ui.viewmodel.TaskViewModel
 import dagger.hilt.android.AndroidEntryPoint
 
 /**
  * Fragmento que muestra las categorías de tareas dentro de la aplicación.
  *
  * Este fragmento se encarga de:
- * - Mostrar las categorías predefinidas ("Trabajo", "Personal", "Estudios") y sus conteos de tareas.
- * - Observar los cambios en las categorías almacenadas en la base de datos.
- * - Mostrar un estado vacío cuando no existen categorías personalizadas.
+ * - Mostrar todas las categorías (predefinidas y personalizadas) con sus conteos de tareas.
+ * - Observar los cambios en las categorías y conteos almacenados en la base de datos.
+ * - Mostrar un estado vacío cuando no existen categorías.
  *
- * Implementa la arquitectura MVVM utilizando los ViewModels [CategoryViewModel] y [TaskViewModel],
+ * Implementa la arquitectura MVVM utilizando [CategoryViewModel],
  * además de la inyección de dependencias con Hilt.
  */
 @AndroidEntryPoint
@@ -33,8 +33,8 @@ class CategoryFragment : Fragment() {
     /** ViewModel encargado de manejar la lógica relacionada con las categorías. */
     private val categoryViewModel: CategoryViewModel by viewModels()
 
-    /** ViewModel encargado de manejar las tareas y su relación con las categorías. */
-    private val taskViewModel: TaskViewModel by viewModels()
+    /** Adaptador de la lista de categorías. */
+    private lateinit var categoryAdapter: CategoryAdapter
 
     /**
      * Infla el layout del fragmento y configura el binding.
@@ -58,50 +58,28 @@ class CategoryFragment : Fragment() {
     }
 
     /**
-     * Inicializa el RecyclerView con un [LinearLayoutManager].
-     * Este componente mostrará las categorías personalizadas si existen.
+     * Inicializa el RecyclerView con un [LinearLayoutManager] y el [CategoryAdapter].
      */
     private fun setupRecyclerView() {
-        binding.recyclerViewCategories.layoutManager = LinearLayoutManager(context)
+        categoryAdapter = CategoryAdapter()
+        binding.recyclerViewCategories.apply {
+            layoutManager = LinearLayoutManager(context)
+            adapter = categoryAdapter
+        }
     }
 
     /**
-     * Observa los cambios en la lista de categorías desde [CategoryViewModel].
-     * También actualiza los contadores de tareas para cada categoría predefinida.
+     * Observa las categorías con su número de tareas desde [CategoryViewModel].
+     *
+     * Una sola consulta entrega todas las categorías y sus conteos, por lo que
+     * basta un único observador para toda la pantalla.
      */
     private fun observeCategories() {
-        categoryViewModel.allCategories.observe(viewLifecycleOwner) { categories ->
-            // Buscar las categorías predefinidas
-            val workCategory = categories.find { it.name == "Trabajo" }
-            val personalCategory = categories.find { it.name == "Personal" }
-            val studiesCategory = categories.find { it.name == "Estudios" }
-
-            // Observa las tareas de la categoría "Trabajo"
-            workCategory?.let { category ->
-                taskViewModel.getTasksByCategory(category.id).observe(viewLifecycleOwner) { tasks ->
-                    binding.textWorkCount.text = "${tasks.size} tareas"
-                }
-            }
-
-            // Observa las tareas de la categoría "Personal"
-            personalCategory?.let { category ->
-                taskViewModel.getTasksByCategory(category.id).observe(viewLifecycleOwner) { tasks ->
-                    binding.textPersonalCount.text = "${tasks.size} tareas"
-                }
-            }
-
-            // Observa las tareas de la categoría "Estudios"
-            studiesCategory?.let { category ->
-                taskViewModel.getTasksByCategory(category.id).observe(viewLifecycleOwner) { tasks ->
-                    binding.textStudiesCount.text = "${tasks.size} tareas"
-                }
-            }
-
-            // Filtra las categorías personalizadas creadas por el usuario
-            val customCategories = categories.filter { !it.isPredefined }
+        categoryViewModel.categoriesWithTaskCount.observe(viewLifecycleOwner) { categories ->
+            categoryAdapter.submitList(categories)
 
-            // Muestra estado vacío si no hay categorías personalizadas
-            if (customCategories.isEmpty()) {
+            // Muestra estado vacío si no hay categorías
+            if (categories.isEmpty()) {
                 binding.emptyStateCategories.visibility = View.VISIBLE
                 binding.recyclerViewCategories.visibility = View.GONE
             } else {
@@ -0,0 +1,90 @@
+package com.ecci.taskmanager.ui.fragments
+
+import android.os.Bundle
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import androidx.fragment.app.Fragment
+import androidx.fragment.app.viewModels
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.lifecycleScope
+import androidx.lifecycle.repeatOnLifecycle
+import androidx.paging.LoadState
+import androidx.recyclerview.widget.LinearLayoutManager
+import com.ecci.taskmanager.databinding.FragmentHistoryBinding
+import com.ecci.taskmanager.ui.adapters.HistoryAdapter
+import com.ecci.taskmanager.ui.viewmodel.TaskViewModel
+import dagger.hilt.android.AndroidEntryPoint
+import kotlinx.coroutines.flow.collectLatest
+import kotlinx.coroutines.launch
+
+/**
+ * Fragmento que muestra el historial de tareas completadas, incluidas las archivadas.
+ *
+ * La lista se desplaza de forma infinita: cada página se carga por cursor
+ * (ver [com.ecci.taskmanager.data.repository.CompletedHistoryPagingSource]),
+ * por lo que avanzar por años de historial no vuelve más lenta la carga.
+ */
+@AndroidEntryPoint
+class HistoryFragment : Fragment() {
+
+    /** Binding para acceder a las vistas del layout XML de este fragmento. */
+    private var _binding: FragmentHistoryBinding? = null
+    private val binding get() = _binding!!
+
+    private val viewModel: TaskViewModel by viewModels()
+
+    /** Adaptador paginado del historial. */
+    private lateinit var historyAdapter: HistoryAdapter
+
+    override fun onCreateView(
+        inflater: LayoutInflater,
+        container: ViewGroup?,
+        savedInstanceState: Bundle?
+    ): View {
+        _binding = FragmentHistoryBinding.inflate(inflater, container, false)
+        return binding.root
+    }
+
+    override fun onViewCreated(view: View, savedInstanceState: Bundle?) {
+        super.onViewCreated(view, savedInstanceState)
+        setupRecyclerView()
+        observeHistory()
+    }
+
+    private fun setupRecyclerView() {
+        historyAdapter = HistoryAdapter()
+        binding.recyclerViewHistory.apply {
+            layoutManager = LinearLayoutManager(context)
+            adapter = historyAdapter
+        }
+
+        // Muestra el estado vacío solo cuando la primera página llegó sin filas
+        historyAdapter.addLoadStateListener { loadStates ->
+            val isEmpty = loadStates.refresh is LoadState.NotLoading &&
+                loadStates.append.endOfPaginationReached &&
+                historyAdapter.itemCount == 0
+            binding.emptyStateHistory.visibility = if (isEmpty) View.VISIBLE else View.GONE
+            binding.recyclerViewHistory.visibility = if (isEmpty) View.GONE else View.VISIBLE
+        }
+    }
+
+    private fun observeHistory() {
+        viewLifecycleOwner.lifecycleScope.launch {
+            viewLifecycleOwner.repeatOnLifecycle(Lifecycle.State.STARTED) {
+                viewModel.completedHistory.collectLatest { pagingData ->
+                    historyAdapter.submitData(pagingData)
+                }
+            }
+        }
+    }
+
+    /**
+     * Libera los recursos del binding cuando la vista es destruida
+     * para evitar fugas de memoria.
+     */
+    override fun onDestroyView() {
+        super.onDestroyView()
+        _binding = null
+    }
+}
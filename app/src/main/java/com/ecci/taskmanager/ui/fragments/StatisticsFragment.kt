@@ -6,7 +6,7 @@ import android.view.View
 import android.view.ViewGroup
 import androidx.fragment.app.Fragment
 import androidx.fragment.app.viewModels
-import com.ecci.taskmanager.data.model.Priority
+import com.ecci.taskmanager.data.model.TaskStatsSnapshot
 import com.ecci.taskmanager.databinding.FragmentStatisticsBinding
 import com.ecci.taskmanager.ui.viewmodel.TaskViewModel
 import dagger.hilt.android.AndroidEntryPoint
@@ -23,8 +23,8 @@ import dagger.hilt.android.AndroidEntryPoint
  * - Distribución de tareas según su prioridad (Alta, Media, Baja).
  * - Porcentaje de finalización general.
  *
- * El fragmento actualiza dinámicamente la interfaz de usuario mediante la observación de objetos **LiveData**
- * proporcionados por el ViewModel, garantizando así una UI reactiva y sincronizada con el estado de los datos.
+ * El fragmento actualiza dinámicamente la interfaz de usuario observando un único [TaskStatsSnapshot]
+ * proporcionado por el ViewModel, garantizando así una UI reactiva y sincronizada con el estado de los datos.
  */
 @AndroidEntryPoint
 class StatisticsFragment : Fragment() {
@@ -58,70 +58,38 @@ class StatisticsFragment : Fragment() {
     }
 
     /**
-     * Observa las distintas métricas del ViewModel y actualiza la interfaz de usuario.
+     * Observa el resumen de estadísticas del ViewModel y actualiza la interfaz de usuario.
      *
-     * Cada LiveData observado representa un tipo de información estadística diferente.
-     * A medida que cambian los datos en la base de datos, la UI se actualiza automáticamente.
+     * Todas las métricas llegan juntas en un único [TaskStatsSnapshot], calculado por una
+     * sola consulta, por lo que la UI se actualiza una vez por cambio en la base de datos.
      */
     private fun observeStatistics() {
-        // Total de tareas creadas
-        viewModel.totalTasksCount.observe(viewLifecycleOwner) { total ->
-            binding.textTotalTasks.text = total.toString()
-            updateCompletionRate()
-        }
-
-        // Tareas completadas
-        viewModel.completedTasksCount.observe(viewLifecycleOwner) { completed ->
-            binding.textCompletedTasks.text = completed.toString()
-            updateCompletionRate()
-        }
-
-        // Tareas pendientes
-        viewModel.pendingTasksCount.observe(viewLifecycleOwner) { pending ->
-            binding.textPendingTasks.text = pending.toString()
-        }
-
-        // Tareas vencidas
-        viewModel.overdueTasksCount.observe(viewLifecycleOwner) { overdue ->
-            binding.textOverdueTasks.text = overdue.toString()
-        }
-
-        // Tareas programadas para el día actual
-        viewModel.todayTasks.observe(viewLifecycleOwner) { todayTasks ->
-            binding.textTodayTasks.text = todayTasks.size.toString()
-        }
-
-        // Conteo de tareas por prioridad
-        viewModel.allTasks.observe(viewLifecycleOwner) { tasks ->
-            val highCount = tasks.count { it.priority == Priority.HIGH }
-            val mediumCount = tasks.count { it.priority == Priority.MEDIUM }
-            val lowCount = tasks.count { it.priority == Priority.LOW }
-
-            binding.textHighPriority.text = highCount.toString()
-            binding.textMediumPriority.text = mediumCount.toString()
-            binding.textLowPriority.text = lowCount.toString()
+        viewModel.statistics.observe(viewLifecycleOwner) { stats ->
+            bindStatistics(stats)
         }
     }
 
     /**
-     * Calcula y actualiza el porcentaje de finalización de tareas.
+     * Asigna los valores del resumen a las vistas.
      *
-     * La tasa se determina como el cociente entre tareas completadas y el total de tareas,
-     * expresada como porcentaje. Este valor se muestra en un componente **ProgressBar**
+     * La tasa de finalización se muestra en un componente **ProgressBar**
      * y un texto descriptivo en pantalla.
+     *
+     * @param stats Resumen de estadísticas a mostrar.
      */
-    private fun updateCompletionRate() {
-        val total = viewModel.totalTasksCount.value ?: 0
-        val completed = viewModel.completedTasksCount.value ?: 0
-
-        val percentage = if (total > 0) {
-            (completed.toFloat() / total.toFloat() * 100).toInt()
-        } else {
-            0
-        }
-
-        binding.progressCompletion.progress = percentage
-        binding.textCompletionRate.text = "$percentage%"
+    private fun bindStatistics(stats: TaskStatsSnapshot) {
+        binding.textTotalTasks.text = stats.totalCount.toString()
+        binding.textCompletedTasks.text = stats.completedCount.toString()
+        binding.textPendingTasks.text = stats.pendingCount.toString()
+        binding.textOverdueTasks.text = stats.overdueCount.toString()
+        binding.textTodayTasks.text = stats.todayCount.toString()
+
+        binding.textHighPriority.text = stats.highPriorityCount.toString()
+        binding.textMediumPriority.text = stats.mediumPriorityCount.toString()
+        binding.textLowPriority.text = stats.lowPriorityCount.toString()
+
+        binding.progressCompletion.progress = stats.completionRate
+        binding.textCompletionRate.text = "${stats.completionRate}%"
     }
 
     /**
@@ -13,6 +13,7 @@ import androidx.navigation.fragment.findNavController
 import androidx.navigation.fragment.navArgs
 import com.ecci.taskmanager.R
 import com.ecci.taskmanager.data.model.Priority
+import com.ecci.taskmanager.data.model.RecurrenceRule
 import com.ecci.taskmanager.data.model.Task
 import com.ecci.taskmanager.databinding.FragmentTaskDetailBinding
 import com.ecci.taskmanager.ui.viewmodel.CategoryViewModel
@@ -62,6 +63,7 @@ class TaskDetailFragment : Fragment() {
         setupDatePickers()
         setupButtons()
         setupRecurringSchedule()
+        observeScheduleConflicts()
 
         if (taskId != 0L) {
             isEditMode = true
@@ -241,6 +243,18 @@ class TaskDetailFragment : Fragment() {
             }
 
             selectedCategoryId = task.categoryId
+
+            if (task.isRecurring) {
+                task.startMinute?.let { selectedStartTime = RecurrenceRule.formatMinute(it) }
+                task.endMinute?.let { selectedEndTime = RecurrenceRule.formatMinute(it) }
+                buttonStartTime.text = selectedStartTime
+                buttonEndTime.text = selectedEndTime
+                switchRecurring.isChecked = true
+                listOf(chipMonday, chipTuesday, chipWednesday, chipThursday, chipFriday, chipSaturday, chipSunday)
+                    .forEachIndexed { index, chip ->
+                        chip.isChecked = task.recurringMask and RecurrenceRule.dayBit(index + 1) != 0
+                    }
+            }
         }
     }
 
@@ -277,9 +291,9 @@ class TaskDetailFragment : Fragment() {
                 hasReminder = binding.switchReminder.isChecked,
                 reminderTime = if (binding.switchReminder.isChecked) selectedReminderTime else null,
                 isRecurring = binding.switchRecurring.isChecked,
-                recurringDays = if (binding.switchRecurring.isChecked) selectedDays.sorted().joinToString(",") else null,
-                startTime = if (binding.switchRecurring.isChecked) selectedStartTime else null,
-                endTime = if (binding.switchRecurring.isChecked) selectedEndTime else null
+                recurringMask = if (binding.switchRecurring.isChecked) RecurrenceRule.maskOf(selectedDays) else 0,
+                startMinute = if (binding.switchRecurring.isChecked) RecurrenceRule.parseMinute(selectedStartTime) else null,
+                endMinute = if (binding.switchRecurring.isChecked) RecurrenceRule.parseMinute(selectedEndTime) else null
             )
         } else {
             Task(
@@ -291,9 +305,9 @@ class TaskDetailFragment : Fragment() {
                 hasReminder = binding.switchReminder.isChecked,
                 reminderTime = if (binding.switchReminder.isChecked) selectedReminderTime else null,
                 isRecurring = binding.switchRecurring.isChecked,
-                recurringDays = if (binding.switchRecurring.isChecked) selectedDays.sorted().joinToString(",") else null,
-                startTime = if (binding.switchRecurring.isChecked) selectedStartTime else null,
-                endTime = if (binding.switchRecurring.isChecked) selectedEndTime else null
+                recurringMask = if (binding.switchRecurring.isChecked) RecurrenceRule.maskOf(selectedDays) else 0,
+                startMinute = if (binding.switchRecurring.isChecked) RecurrenceRule.parseMinute(selectedStartTime) else null,
+                endMinute = if (binding.switchRecurring.isChecked) RecurrenceRule.parseMinute(selectedEndTime) else null
             )
         }
 
@@ -303,10 +317,8 @@ class TaskDetailFragment : Fragment() {
             taskViewModel.createTask(task)
         }
 
-        // Programar notificacion si tiene recordatorio
+        // La alarma la reprograma ReminderScheduler al guardarse la tarea
         if (task.hasReminder && task.reminderTime != null) {
-            val notificationHelper = com.ecci.taskmanager.notifications.NotificationHelper(requireContext())
-            notificationHelper.scheduleNotification(task)
             Snackbar.make(binding.root, "Recordatorio programado", Snackbar.LENGTH_SHORT).show()
         }
 
@@ -436,29 +448,37 @@ class TaskDetailFragment : Fragment() {
                 selectedDays.clear()
                 binding.chipGroupDays.clearCheck()
             }
+            updateScheduleConflicts()
         }
 
         // Configurar chips de días
         binding.chipMonday.setOnCheckedChangeListener { _, isChecked ->
             if (isChecked) selectedDays.add(1) else selectedDays.remove(1)
+            updateScheduleConflicts()
         }
         binding.chipTuesday.setOnCheckedChangeListener { _, isChecked ->
             if (isChecked) selectedDays.add(2) else selectedDays.remove(2)
+            updateScheduleConflicts()
         }
         binding.chipWednesday.setOnCheckedChangeListener { _, isChecked ->
             if (isChecked) selectedDays.add(3) else selectedDays.remove(3)
+            updateScheduleConflicts()
         }
         binding.chipThursday.setOnCheckedChangeListener { _, isChecked ->
             if (isChecked) selectedDays.add(4) else selectedDays.remove(4)
+            updateScheduleConflicts()
         }
         binding.chipFriday.setOnCheckedChangeListener { _, isChecked ->
             if (isChecked) selectedDays.add(5) else selectedDays.remove(5)
+            updateScheduleConflicts()
         }
         binding.chipSaturday.setOnCheckedChangeListener { _, isChecked ->
             if (isChecked) selectedDays.add(6) else selectedDays.remove(6)
+            updateScheduleConflicts()
         }
         binding.chipSunday.setOnCheckedChangeListener { _, isChecked ->
             if (isChecked) selectedDays.add(7) else selectedDays.remove(7)
+            updateScheduleConflicts()
         }
 
         // Selectores de hora
@@ -466,6 +486,7 @@ class TaskDetailFragment : Fragment() {
             showTimePicker("Hora de inicio", selectedStartTime) { time ->
                 selectedStartTime = time
                 binding.buttonStartTime.text = time
+                updateScheduleConflicts()
             }
         }
 
@@ -473,6 +494,32 @@ class TaskDetailFragment : Fragment() {
             showTimePicker("Hora de fin", selectedEndTime) { time ->
                 selectedEndTime = time
                 binding.buttonEndTime.text = time
+                updateScheduleConflicts()
+            }
+        }
+    }
+
+    /**
+     * Pide al ViewModel los cruces del horario elegido; el resultado llega por
+     * [TaskViewModel.scheduleConflicts].
+     */
+    private fun updateScheduleConflicts() {
+        val rule = if (binding.switchRecurring.isChecked) {
+            val mask = RecurrenceRule.maskOf(selectedDays)
+            val start = RecurrenceRule.parseMinute(selectedStartTime)
+            val end = RecurrenceRule.parseMinute(selectedEndTime)
+            if (mask != 0 && start != null && end != null) RecurrenceRule(mask, start, end) else null
+        } else {
+            null
+        }
+        taskViewModel.checkScheduleConflicts(taskId, rule)
+    }
+
+    private fun observeScheduleConflicts() {
+        taskViewModel.scheduleConflicts.observe(viewLifecycleOwner) { titles ->
+            binding.textScheduleConflicts.apply {
+                visibility = if (titles.isEmpty()) View.GONE else View.VISIBLE
+                text = "Se cruza con: ${titles.joinToString(", ")}"
             }
         }
     }
@@ -485,7 +532,7 @@ class TaskDetailFragment : Fragment() {
         TimePickerDialog(
             requireContext(),
             { _, selectedHour, selectedMinute ->
-                val timeString = String.format("%02d:%02d", selectedHour, selectedMinute)
+                val timeString = RecurrenceRule.formatMinute(selectedHour * 60 + selectedMinute)
                 onTimeSelected(timeString)
             },
             hour,
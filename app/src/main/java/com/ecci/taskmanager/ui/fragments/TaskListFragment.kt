@@ -6,7 +6,11 @@ import android.view.View
 import android.view.ViewGroup
 import androidx.fragment.app.Fragment
 import androidx.fragment.app.viewModels
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.lifecycleScope
+import androidx.lifecycle.repeatOnLifecycle
 import androidx.navigation.fragment.findNavController
+import androidx.paging.LoadState
 import androidx.recyclerview.widget.ItemTouchHelper
 import androidx.recyclerview.widget.LinearLayoutManager
 import androidx.recyclerview.widget.RecyclerView
@@ -17,6 +21,8 @@ import com.ecci.taskmanager.ui.viewmodel.TaskViewModel
 import com.google.android.material.chip.Chip
 import com.google.android.material.snackbar.Snackbar
 import dagger.hilt.android.AndroidEntryPoint
+import kotlinx.coroutines.flow.collectLatest
+import kotlinx.coroutines.launch
 
 @AndroidEntryPoint
 class TaskListFragment : Fragment() {
@@ -52,15 +58,17 @@ class TaskListFragment : Fragment() {
                 Snackbar.make(binding.root, "Tarea: ${task.title}", Snackbar.LENGTH_SHORT).show()
             },
             onTaskCheckChanged = { task, isChecked ->
-                viewModel.toggleTaskCompletion(task)
-
-                // Forzar actualización de la lista después de un pequeño delay
-                view?.postDelayed({
-                    viewModel.applyFilter(viewModel.activeFilter.value ?: com.ecci.taskmanager.ui.viewmodel.TaskFilter.ALL)
-                }, 100)
+                // La PagingSource de Room se invalida sola al cambiar la tabla
+                viewModel.setTaskCompleted(task, isChecked)
             }
         )
 
+        taskAdapter.addLoadStateListener { loadStates ->
+            if (loadStates.refresh is LoadState.NotLoading) {
+                updateEmptyState(taskAdapter.itemCount == 0)
+            }
+        }
+
         binding.recyclerViewTasks.apply {
             layoutManager = LinearLayoutManager(context)
             adapter = taskAdapter
@@ -98,47 +106,20 @@ class TaskListFragment : Fragment() {
     }
 
     private fun observeViewModel() {
-        // Observar todas las tareas primero
-        viewModel.allTasks.observe(viewLifecycleOwner) { allTasks ->
-            // Este observe asegura que siempre tengamos datos actualizados
-        }
-
-        // Observar filtro activo y actualizar lista
-        viewModel.activeFilter.observe(viewLifecycleOwner) { filter ->
-            when (filter) {
-                com.ecci.taskmanager.ui.viewmodel.TaskFilter.ALL -> {
-                    viewModel.allTasks.observe(viewLifecycleOwner) { tasks ->
-                        taskAdapter.submitList(tasks)
-                        updateEmptyState(tasks.isEmpty())
-                    }
-                }
-                com.ecci.taskmanager.ui.viewmodel.TaskFilter.PENDING -> {
-                    viewModel.pendingTasks.observe(viewLifecycleOwner) { tasks ->
-                        taskAdapter.submitList(tasks)
-                        updateEmptyState(tasks.isEmpty())
-                    }
-                }
-                com.ecci.taskmanager.ui.viewmodel.TaskFilter.COMPLETED -> {
-                    viewModel.completedTasks.observe(viewLifecycleOwner) { tasks ->
-                        taskAdapter.submitList(tasks)
-                        updateEmptyState(tasks.isEmpty())
-                    }
-                }
-                com.ecci.taskmanager.ui.viewmodel.TaskFilter.OVERDUE -> {
-                    viewModel.overdueTasks.observe(viewLifecycleOwner) { tasks ->
-                        taskAdapter.submitList(tasks)
-                        updateEmptyState(tasks.isEmpty())
-                    }
-                }
-                com.ecci.taskmanager.ui.viewmodel.TaskFilter.TODAY -> {
-                    viewModel.todayTasks.observe(viewLifecycleOwner) { tasks ->
-                        taskAdapter.submitList(tasks)
-                        updateEmptyState(tasks.isEmpty())
-                    }
+        // La lista paginada ya cambia de fuente según el filtro activo
+        viewLifecycleOwner.lifecycleScope.launch {
+            viewLifecycleOwner.repeatOnLifecycle(Lifecycle.State.STARTED) {
+                viewModel.pagedTasks.collectLatest { pagingData ->
+                    taskAdapter.submitData(pagingData)
                 }
             }
         }
 
+        // Las filas solo traen IDs de etiquetas; el mapa resuelve nombre y color
+        viewModel.tagsById.observe(viewLifecycleOwner) { tags ->
+            taskAdapter.setTags(tags)
+        }
+
         viewModel.isLoading.observe(viewLifecycleOwner) { isLoading ->
             binding.progressBar.visibility = if (isLoading) View.VISIBLE else View.GONE
         }
@@ -182,14 +163,18 @@ class TaskListFragment : Fragment() {
             ): Boolean = false
 
             override fun onSwiped(viewHolder: RecyclerView.ViewHolder, direction: Int) {
-                val position = viewHolder.adapterPosition
-                val task = taskAdapter.currentList[position]
+                val position = viewHolder.bindingAdapterPosition
+                val task = taskAdapter.peek(position)?.task
+                if (task == null) {
+                    taskAdapter.notifyItemChanged(position)
+                    return
+                }
 
-                viewModel.deleteTask(task)
+                viewModel.deleteListItem(task)
 
                 Snackbar.make(binding.root, "Tarea eliminada", Snackbar.LENGTH_LONG)
                     .setAction("DESHACER") {
-                        viewModel.createTask(task)
+                        viewModel.undoDelete()
                     }
                     .show()
             }
@@ -3,8 +3,10 @@ package com.ecci.taskmanager.ui.viewmodel
 import androidx.lifecycle.LiveData
 import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
+import androidx.lifecycle.asLiveData
 import androidx.lifecycle.viewModelScope
 import com.ecci.taskmanager.data.model.Category
+import com.ecci.taskmanager.data.model.CategoryWithCount
 import com.ecci.taskmanager.data.repository.CategoryRepository
 import dagger.hilt.android.lifecycle.HiltViewModel
 import kotlinx.coroutines.launch
@@ -15,9 +17,13 @@ class CategoryViewModel @Inject constructor(
     private val categoryRepository: CategoryRepository
 ) : ViewModel() {
 
-    val allCategories: LiveData<List<Category>> = categoryRepository.allCategories
-    val predefinedCategories: LiveData<List<Category>> = categoryRepository.predefinedCategories
-    val customCategories: LiveData<List<Category>> = categoryRepository.customCategories
+    val allCategories: LiveData<List<Category>> = categoryRepository.allCategories.asLiveData()
+    val predefinedCategories: LiveData<List<Category>> = categoryRepository.predefinedCategories.asLiveData()
+    val customCategories: LiveData<List<Category>> = categoryRepository.customCategories.asLiveData()
+
+    /** Categorías con su número de tareas (pantalla de categorías). */
+    val categoriesWithTaskCount: LiveData<List<CategoryWithCount>> =
+        categoryRepository.categoriesWithTaskCount.asLiveData()
 
     private val _isLoading = MutableLiveData<Boolean>(false)
     val isLoading: LiveData<Boolean> = _isLoading
@@ -90,11 +96,11 @@ class CategoryViewModel @Inject constructor(
     }
 
     fun searchCategories(query: String): LiveData<List<Category>> {
-        return categoryRepository.searchCategories(query)
+        return categoryRepository.searchCategories(query).asLiveData()
     }
 
     fun getTaskCountByCategory(categoryId: Long): LiveData<Int> {
-        return categoryRepository.getTaskCountByCategory(categoryId)
+        return categoryRepository.getTaskCountByCategory(categoryId).asLiveData()
     }
 
     fun selectCategory(category: Category) {
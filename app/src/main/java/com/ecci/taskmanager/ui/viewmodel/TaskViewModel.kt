@@ -3,30 +3,62 @@ package com.ecci.taskmanager.ui.viewmodel
 import androidx.lifecycle.LiveData
 import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
+import androidx.lifecycle.asFlow
+import androidx.lifecycle.asLiveData
 import androidx.lifecycle.viewModelScope
+import androidx.paging.PagingData
+import androidx.paging.cachedIn
+import com.ecci.taskmanager.data.model.CompletedTaskItem
+import com.ecci.taskmanager.data.model.RecurrenceRule
+import com.ecci.taskmanager.data.model.Tag
 import com.ecci.taskmanager.data.model.Task
+import com.ecci.taskmanager.data.model.TaskListItem
+import com.ecci.taskmanager.data.model.TaskQuery
+import com.ecci.taskmanager.data.model.TaskStatsSnapshot
 import com.ecci.taskmanager.data.model.TaskStatus
+import com.ecci.taskmanager.data.model.TaskWithTags
+import com.ecci.taskmanager.data.model.WeekAgenda
 import com.ecci.taskmanager.data.model.Priority
+import com.ecci.taskmanager.data.repository.DayRange
+import com.ecci.taskmanager.data.repository.ScheduleIndex
+import com.ecci.taskmanager.data.repository.TagRepository
 import com.ecci.taskmanager.data.repository.TaskRepository
 import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.launch
 import javax.inject.Inject
 
 @HiltViewModel
 class TaskViewModel @Inject constructor(
-    private val taskRepository: TaskRepository
+    private val taskRepository: TaskRepository,
+    tagRepository: TagRepository
 ) : ViewModel() {
 
-    val allTasks: LiveData<List<Task>> = taskRepository.allTasks
-    val pendingTasks: LiveData<List<Task>> = taskRepository.pendingTasks
-    val completedTasks: LiveData<List<Task>> = taskRepository.completedTasks
-    val overdueTasks: LiveData<List<Task>> = taskRepository.overdueTasks
-    val todayTasks: LiveData<List<Task>> = taskRepository.todayTasks
+    // asLiveData() solo recolecta mientras haya observadores activos
+    val allTasks: LiveData<List<Task>> = taskRepository.allTasks.asLiveData()
+    val pendingTasks: LiveData<List<Task>> = taskRepository.pendingTasks.asLiveData()
+    val completedTasks: LiveData<List<Task>> = taskRepository.completedTasks.asLiveData()
+    val overdueTasks: LiveData<List<Task>> = taskRepository.overdueTasks.asLiveData()
+    val todayTasks: LiveData<List<Task>> = taskRepository.todayTasks.asLiveData()
+    val weekAgenda: LiveData<WeekAgenda> = taskRepository.weekAgenda.asLiveData()
 
-    val totalTasksCount: LiveData<Int> = taskRepository.totalTasksCount
-    val completedTasksCount: LiveData<Int> = taskRepository.completedTasksCount
-    val pendingTasksCount: LiveData<Int> = taskRepository.pendingTasksCount
-    val overdueTasksCount: LiveData<Int> = taskRepository.overdueTasksCount
+    val totalTasksCount: LiveData<Int> = taskRepository.totalTasksCount.asLiveData()
+    val completedTasksCount: LiveData<Int> = taskRepository.completedTasksCount.asLiveData()
+    val pendingTasksCount: LiveData<Int> = taskRepository.pendingTasksCount.asLiveData()
+    val overdueTasksCount: LiveData<Int> = taskRepository.overdueTasksCount.asLiveData()
+
+    /** Etiquetas indexadas por ID, para resolver los chips de la lista sin releer `tags`. */
+    val tagsById: LiveData<Map<Long, Tag>> = tagRepository.allTags
+        .map { tags -> tags.associateBy { it.id } }
+        .asLiveData()
+
+    /** Todas las estadísticas de la pantalla de resumen, desde una única consulta. */
+    val statistics: LiveData<TaskStatsSnapshot> = taskRepository.statsSnapshot().asLiveData()
 
     private val _isLoading = MutableLiveData<Boolean>(false)
     val isLoading: LiveData<Boolean> = _isLoading
@@ -43,12 +75,35 @@ class TaskViewModel @Inject constructor(
     private val _activeFilter = MutableLiveData<TaskFilter>(TaskFilter.ALL)
     val activeFilter: LiveData<TaskFilter> = _activeFilter
 
+    /**
+     * Lista paginada de tareas según el filtro activo.
+     *
+     * Cada filtro se traduce a un [TaskQuery] (ver [TaskFilter.toQuery]) y se
+     * resuelve con una sola consulta compilada. Al cambiar el filtro se reemplaza
+     * el flujo paginado completo; `cachedIn` conserva las páginas cargadas ante
+     * cambios de configuración.
+     */
+    @OptIn(ExperimentalCoroutinesApi::class)
+    val pagedTasks: Flow<PagingData<TaskWithTags>> = _activeFilter.asFlow()
+        .distinctUntilChanged()
+        .flatMapLatest { filter -> taskRepository.queryTasksPaged(filter::toQuery) }
+        .cachedIn(viewModelScope)
+
+    /**
+     * Historial de tareas completadas, paginado por cursor.
+     */
+    val completedHistory: Flow<PagingData<CompletedTaskItem>> = taskRepository.completedHistoryPaged()
+        .cachedIn(viewModelScope)
+
     private val _searchQuery = MutableLiveData<String>("")
     val searchQuery: LiveData<String> = _searchQuery
 
     private val _searchResults = MutableLiveData<List<Task>>()
     val searchResults: LiveData<List<Task>> = _searchResults
 
+    /** Recolección de la búsqueda en curso; se cancela al cambiar el texto. */
+    private var searchJob: Job? = null
+
     fun createTask(task: Task) {
         viewModelScope.launch {
             _isLoading.value = true
@@ -67,16 +122,8 @@ class TaskViewModel @Inject constructor(
         }
     }
 
-
-    // ⭐ MÉTODO NUEVO: Para SettingsFragment (importar tareas)
-    fun insertTask(task: Task) {
-        viewModelScope.launch {
-            taskRepository.insertTask(task)
-        }
-    }
-
     fun getTaskById(taskId: Long): LiveData<Task?> {
-        return taskRepository.getTaskByIdLive(taskId)
+        return taskRepository.getTaskByIdLive(taskId).asLiveData()
     }
 
     fun updateTask(task: Task) {
@@ -133,6 +180,55 @@ class TaskViewModel @Inject constructor(
         }
     }
 
+    /** Última tarea eliminada desde la lista, para poder deshacer la eliminación. */
+    private var lastDeletedTaskId: Long? = null
+
+    /**
+     * Elimina una tarea mostrada en la lista.
+     *
+     * La eliminación es lógica, así que [undoDelete] solo necesita el ID de la
+     * tarea para recuperarla.
+     */
+    fun deleteListItem(item: TaskListItem) {
+        lastDeletedTaskId = item.id
+        viewModelScope.launch {
+            taskRepository.deleteTaskById(item.id).onFailure { exception ->
+                lastDeletedTaskId = null
+                _errorMessage.value = exception.message ?: "Error al eliminar la tarea"
+            }
+        }
+    }
+
+    /** Recupera la última tarea eliminada con [deleteListItem]. */
+    fun undoDelete() {
+        val taskId = lastDeletedTaskId ?: return
+        lastDeletedTaskId = null
+        viewModelScope.launch {
+            taskRepository.restoreTask(taskId).onFailure { exception ->
+                _errorMessage.value = exception.message ?: "Error al restaurar la tarea"
+            }
+        }
+    }
+
+    /**
+     * Marca como completada o pendiente una tarea de la lista.
+     */
+    fun setTaskCompleted(item: TaskListItem, completed: Boolean) {
+        viewModelScope.launch {
+            val result = taskRepository.setTaskCompleted(item.id, completed)
+
+            result.onSuccess {
+                _successMessage.value = if (completed) {
+                    "Tarea completada!"
+                } else {
+                    "Tarea marcada como pendiente"
+                }
+            }.onFailure { exception ->
+                _errorMessage.value = exception.message ?: "Error al actualizar la tarea"
+            }
+        }
+    }
+
     fun toggleTaskCompletion(task: Task) {
         viewModelScope.launch {
             val result = taskRepository.toggleTaskCompletion(task)
@@ -203,43 +299,78 @@ class TaskViewModel @Inject constructor(
         _activeFilter.value = filter
     }
 
-    fun getFilteredTasks(): LiveData<List<Task>> {
-        return when (_activeFilter.value) {
-            TaskFilter.ALL -> allTasks
-            TaskFilter.PENDING -> pendingTasks
-            TaskFilter.COMPLETED -> completedTasks
-            TaskFilter.OVERDUE -> overdueTasks
-            TaskFilter.TODAY -> todayTasks
-            else -> allTasks
-        }
-    }
-
     fun searchTasks(query: String) {
         _searchQuery.value = query
+        searchJob?.cancel()
 
         if (query.isBlank()) {
             _searchResults.value = emptyList()
             return
         }
 
-        viewModelScope.launch {
-            taskRepository.searchTasks(query).observeForever { results ->
+        searchJob = viewModelScope.launch {
+            taskRepository.searchTasks(query).collect { results ->
                 _searchResults.value = results
             }
         }
     }
 
     fun clearSearch() {
+        searchJob?.cancel()
         _searchQuery.value = ""
         _searchResults.value = emptyList()
     }
 
+    // --- Detección de cruces de horario ---
+
+    /** Bloques de las tareas recurrentes; se llena al empezar a comprobar cruces. */
+    private val scheduleIndex = ScheduleIndex()
+    private var recurringTitles: Map<Long, String> = emptyMap()
+    private var scheduleJob: Job? = null
+    private var scheduleCheck: Pair<Long, RecurrenceRule?> = 0L to null
+
+    private val _scheduleConflicts = MutableLiveData<List<String>>(emptyList())
+    val scheduleConflicts: LiveData<List<String>> = _scheduleConflicts
+
+    /**
+     * Comprueba si el horario que se está editando se cruza con otras tareas
+     * recurrentes y publica sus títulos en [scheduleConflicts].
+     *
+     * El índice se mantiene al día mientras el ViewModel vive: al guardar o eliminar
+     * una tarea solo se actualizan sus bloques y se repite la última comprobación.
+     *
+     * @param taskId Tarea en edición (0 si es nueva).
+     * @param rule Horario elegido, o `null` si la tarea no es recurrente.
+     */
+    fun checkScheduleConflicts(taskId: Long, rule: RecurrenceRule?) {
+        scheduleCheck = taskId to rule
+        if (scheduleJob == null) {
+            scheduleJob = viewModelScope.launch {
+                taskRepository.recurringTasks.collect { tasks ->
+                    recurringTitles = tasks.associate { it.id to it.title }
+                    scheduleIndex.sync(tasks)
+                    publishScheduleConflicts()
+                }
+            }
+        }
+        publishScheduleConflicts()
+    }
+
+    private fun publishScheduleConflicts() {
+        val (taskId, rule) = scheduleCheck
+        _scheduleConflicts.value = if (rule == null) {
+            emptyList()
+        } else {
+            scheduleIndex.findConflicts(rule, taskId).mapNotNull { recurringTitles[it] }
+        }
+    }
+
     fun getTasksByCategory(categoryId: Long): LiveData<List<Task>> {
-        return taskRepository.getTasksByCategory(categoryId)
+        return taskRepository.getTasksByCategory(categoryId).asLiveData()
     }
 
     fun getTasksByPriority(priority: Priority): LiveData<List<Task>> {
-        return taskRepository.getTasksByPriority(priority)
+        return taskRepository.getTasksByPriority(priority).asLiveData()
     }
 
     fun selectTask(task: Task) {
@@ -274,5 +405,35 @@ enum class TaskFilter {
     PENDING,
     COMPLETED,
     OVERDUE,
-    TODAY
+    TODAY;
+
+    /**
+     * Criterios del filtro a la hora [now]; "hoy" y "vencidas" dependen de ella.
+     */
+    fun toQuery(now: Long): TaskQuery = when (this) {
+        ALL -> TaskQuery(sort = TaskQuery.Sort.CREATED_DESC)
+        PENDING -> TaskQuery(
+            statuses = setOf(TaskStatus.PENDING),
+            sort = TaskQuery.Sort.DUE_DATE_ASC
+        )
+        COMPLETED -> TaskQuery(
+            statuses = setOf(TaskStatus.COMPLETED),
+            includeArchived = true,
+            sort = TaskQuery.Sort.COMPLETED_DESC
+        )
+        OVERDUE -> TaskQuery(
+            statuses = setOf(TaskStatus.PENDING, TaskStatus.OVERDUE),
+            dueTo = now - 1,
+            sort = TaskQuery.Sort.DUE_DATE_ASC
+        )
+        TODAY -> {
+            val today = DayRange.today(now)
+            TaskQuery(
+                statuses = setOf(TaskStatus.PENDING, TaskStatus.OVERDUE),
+                dueFrom = today.start,
+                dueTo = today.endInclusive,
+                sort = TaskQuery.Sort.PRIORITY_DESC
+            )
+        }
+    }
 }
\ No newline at end of file
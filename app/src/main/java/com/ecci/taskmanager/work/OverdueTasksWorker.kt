@@ -0,0 +1,68 @@
+package com.ecci.taskmanager.work
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.ecci.taskmanager.data.repository.TaskRepository
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Trabajo periódico que marca como vencidas ([com.ecci.taskmanager.data.model.TaskStatus.OVERDUE])
+ * las tareas pendientes cuya fecha límite ya pasó.
+ *
+ * La transición se realiza con una única sentencia `UPDATE` (ver
+ * [TaskRepository.updateOverdueTasks]), por lo que su costo depende solo de las
+ * filas afectadas y se ejecuta en una sola transacción.
+ */
+@HiltWorker
+class OverdueTasksWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted params: WorkerParameters,
+    private val taskRepository: TaskRepository
+) : CoroutineWorker(context, params) {
+
+    override suspend fun doWork(): Result {
+        val result = taskRepository.updateOverdueTasks()
+
+        result.onSuccess { count ->
+            Timber.d("Tareas marcadas como vencidas: $count")
+        }.onFailure { exception ->
+            Timber.e(exception, "Error al actualizar tareas vencidas")
+        }
+
+        return if (result.isSuccess) Result.success() else Result.retry()
+    }
+
+    companion object {
+        /** Nombre único del trabajo periódico. */
+        private const val WORK_NAME = "overdue_tasks"
+
+        /** Intervalo de ejecución (el mínimo permitido por WorkManager). */
+        private const val INTERVAL_MINUTES = 15L
+
+        /**
+         * Programa el trabajo periódico si aún no existe.
+         *
+         * @param context Contexto de la aplicación.
+         */
+        fun schedule(context: Context) {
+            val request = PeriodicWorkRequestBuilder<OverdueTasksWorker>(
+                INTERVAL_MINUTES,
+                TimeUnit.MINUTES
+            ).build()
+
+            WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                request
+            )
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecci.taskmanager.work
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.ecci.taskmanager.data.repository.TaskRepository
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Trabajo diario que mueve a `tasks_archive` las tareas completadas hace más de
+ * [ARCHIVE_AFTER_DAYS] días (ver [TaskRepository.archiveCompletedTasks]).
+ *
+ * Así la tabla `tasks` se mantiene proporcional al trabajo activo, y las consultas
+ * de pendientes, vencidas y del día no recorren el historial.
+ */
+@HiltWorker
+class TaskArchiveWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted params: WorkerParameters,
+    private val taskRepository: TaskRepository
+) : CoroutineWorker(context, params) {
+
+    override suspend fun doWork(): Result {
+        val result = taskRepository.archiveCompletedTasks(ARCHIVE_AFTER_DAYS)
+
+        result.onSuccess { count ->
+            Timber.d("Tareas archivadas: $count")
+        }.onFailure { exception ->
+            Timber.e(exception, "Error al archivar tareas completadas")
+        }
+
+        return if (result.isSuccess) Result.success() else Result.retry()
+    }
+
+    companion object {
+        /** Nombre único del trabajo periódico. */
+        private const val WORK_NAME = "archive_completed_tasks"
+
+        /** Días que una tarea completada permanece en `tasks` antes de archivarse. */
+        const val ARCHIVE_AFTER_DAYS = 30
+
+        /**
+         * Programa el trabajo diario si aún no existe. Se ejecuta con el
+         * dispositivo inactivo para no competir con la interfaz.
+         *
+         * @param context Contexto de la aplicación.
+         */
+        fun schedule(context: Context) {
+            val request = PeriodicWorkRequestBuilder<TaskArchiveWorker>(1, TimeUnit.DAYS)
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiresDeviceIdle(true)
+                        .build()
+                )
+                .build()
+
+            WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                request
+            )
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecci.taskmanager.work
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.ecci.taskmanager.data.repository.TaskRepository
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Trabajo diario que elimina físicamente las tareas marcadas como eliminadas hace
+ * más de [PURGE_AFTER_HOURS] horas (ver [TaskRepository.purgeDeletedTasks]).
+ *
+ * La eliminación desde la interfaz solo escribe `deletedAt`; el borrado de las filas,
+ * sus etiquetas y sus entradas de texto completo se difiere a este trabajo.
+ */
+@HiltWorker
+class TaskPurgeWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted params: WorkerParameters,
+    private val taskRepository: TaskRepository
+) : CoroutineWorker(context, params) {
+
+    override suspend fun doWork(): Result {
+        val result = taskRepository.purgeDeletedTasks(TimeUnit.HOURS.toMillis(PURGE_AFTER_HOURS))
+
+        result.onSuccess { count ->
+            Timber.d("Tareas eliminadas purgadas: $count")
+        }.onFailure { exception ->
+            Timber.e(exception, "Error al purgar tareas eliminadas")
+        }
+
+        return if (result.isSuccess) Result.success() else Result.retry()
+    }
+
+    companion object {
+        /** Nombre único del trabajo periódico. */
+        private const val WORK_NAME = "purge_deleted_tasks"
+
+        /** Horas que una tarea eliminada se conserva (recuperable) antes de purgarse. */
+        const val PURGE_AFTER_HOURS = 24L
+
+        /**
+         * Programa el trabajo diario si aún no existe. Se ejecuta con el
+         * dispositivo inactivo para no competir con la interfaz.
+         *
+         * @param context Contexto de la aplicación.
+         */
+        fun schedule(context: Context) {
+            val request = PeriodicWorkRequestBuilder<TaskPurgeWorker>(1, TimeUnit.DAYS)
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiresDeviceIdle(true)
+                        .build()
+                )
+                .build()
+
+            WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                request
+            )
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecci.taskmanager.data.database
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import kotlin.math.ln
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Pruebas de [FtsQuery]: consultas de prefijos y BM25 sobre blobs de `matchinfo('pcnalx')`.
+ */
+class FtsQueryTest {
+
+    /**
+     * Blob de `matchinfo('pcnalx')` con una frase y dos columnas (título, descripción).
+     *
+     * @param hits Por columna: (apariciones en la fila, apariciones totales, filas con alguna).
+     */
+    private fun matchInfo(totalDocs: Int, avgLengths: IntArray, lengths: IntArray, hits: List<IntArray>): ByteArray {
+        val values = intArrayOf(1, avgLengths.size, totalDocs) + avgLengths + lengths + hits.flatMap { it.toList() }
+        val buffer = ByteBuffer.allocate(values.size * Int.SIZE_BYTES).order(ByteOrder.nativeOrder())
+        values.forEach { buffer.putInt(it) }
+        return buffer.array()
+    }
+
+    @Test
+    fun bm25_matchesHandComputedScore() {
+        val blob = matchInfo(
+            totalDocs = 10,
+            avgLengths = intArrayOf(4, 20),
+            lengths = intArrayOf(2, 40),
+            hits = listOf(intArrayOf(1, 3, 3), intArrayOf(2, 5, 4))
+        )
+
+        // Título: 2.0 * ln(7.5 / 3.5) * 2.2 / 1.75; descripción: 1.0 * ln(6.5 / 4.5) * 4.4 / 4.1
+        assertEquals(2.3108693165004826, FtsQuery.bm25(blob), 1e-9)
+    }
+
+    @Test
+    fun bm25_columnWithoutHitsAddsNothing() {
+        val titleOnly = matchInfo(10, intArrayOf(4, 20), intArrayOf(2, 40), listOf(intArrayOf(1, 3, 3), intArrayOf(0, 5, 4)))
+
+        assertEquals(2.0 * ln(7.5 / 3.5) * 2.2 / 1.75, FtsQuery.bm25(titleOnly), 1e-9)
+    }
+
+    @Test
+    fun bm25_titleHitOutranksDescriptionHit() {
+        val inTitle = matchInfo(10, intArrayOf(4, 4), intArrayOf(4, 4), listOf(intArrayOf(1, 3, 3), intArrayOf(0, 3, 3)))
+        val inDescription = matchInfo(10, intArrayOf(4, 4), intArrayOf(4, 4), listOf(intArrayOf(0, 3, 3), intArrayOf(1, 3, 3)))
+
+        assertTrue(FtsQuery.bm25(inTitle) > FtsQuery.bm25(inDescription))
+    }
+
+    @Test
+    fun prefixQuery_dropsOperatorsAndAddsPrefixes() {
+        assertEquals("reu* proy*", FtsQuery.prefixQuery("  reu \"proy*\" "))
+        assertEquals("año* 2024*", FtsQuery.prefixQuery("año-2024"))
+        assertNull(FtsQuery.prefixQuery(" *\"() "))
+    }
+}
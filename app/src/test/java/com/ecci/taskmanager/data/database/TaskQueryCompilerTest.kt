@@ -0,0 +1,160 @@
+package com.ecci.taskmanager.data.database
+
+import androidx.sqlite.db.SupportSQLiteProgram
+import com.ecci.taskmanager.data.model.Priority
+import com.ecci.taskmanager.data.model.TaskQuery
+import com.ecci.taskmanager.data.model.TaskStatus
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Pruebas de [TaskQueryCompiler]: forma de la consulta, marcadores y orden de los argumentos.
+ */
+class TaskQueryCompilerTest {
+
+    /** Programa SQLite falso que registra los valores enlazados por posición. */
+    private class RecordingProgram : SupportSQLiteProgram {
+        val bindings = sortedMapOf<Int, Any?>()
+
+        override fun bindNull(index: Int) {
+            bindings[index] = null
+        }
+
+        override fun bindLong(index: Int, value: Long) {
+            bindings[index] = value
+        }
+
+        override fun bindDouble(index: Int, value: Double) {
+            bindings[index] = value
+        }
+
+        override fun bindString(index: Int, value: String) {
+            bindings[index] = value
+        }
+
+        override fun bindBlob(index: Int, value: ByteArray) {
+            bindings[index] = value
+        }
+
+        override fun clearBindings() {
+            bindings.clear()
+        }
+
+        override fun close() = Unit
+    }
+
+    private fun bindingsOf(query: TaskQuery): List<Any?> {
+        val program = RecordingProgram()
+        TaskQueryCompiler.compile(query).bindTo(program)
+        return program.bindings.values.toList()
+    }
+
+    private fun placeholderCount(sql: String): Int = sql.count { it == '?' }
+
+    @Test
+    fun sameShape_reusesSqlText() {
+        val first = TaskQueryCompiler.compile(
+            TaskQuery(statuses = setOf(TaskStatus.PENDING), categoryIds = setOf(1L, 2L))
+        )
+        val second = TaskQueryCompiler.compile(
+            TaskQuery(statuses = setOf(TaskStatus.COMPLETED), categoryIds = setOf(7L, 9L))
+        )
+
+        assertSame(first.sql, second.sql)
+    }
+
+    @Test
+    fun shapeKey_ignoresValuesButNotSizesOrSort() {
+        val base = TaskQuery(priorities = setOf(Priority.HIGH), dueFrom = 10L)
+
+        assertEquals(
+            TaskQueryCompiler.shapeOf(base),
+            TaskQueryCompiler.shapeOf(base.copy(priorities = setOf(Priority.LOW), dueFrom = 99L))
+        )
+        assertNotEquals(
+            TaskQueryCompiler.shapeOf(base),
+            TaskQueryCompiler.shapeOf(base.copy(priorities = setOf(Priority.LOW, Priority.HIGH)))
+        )
+        assertNotEquals(
+            TaskQueryCompiler.shapeOf(base),
+            TaskQueryCompiler.shapeOf(base.copy(sort = TaskQuery.Sort.PRIORITY_DESC))
+        )
+        assertNotEquals(
+            TaskQueryCompiler.shapeOf(base),
+            TaskQueryCompiler.shapeOf(base.copy(includeArchived = true))
+        )
+    }
+
+    @Test
+    fun shapeKey_textWithoutWordsIsNoText() {
+        assertEquals(
+            TaskQueryCompiler.shapeOf(TaskQuery()),
+            TaskQueryCompiler.shapeOf(TaskQuery(text = " \"*() "))
+        )
+    }
+
+    @Test
+    fun inLists_haveOnePlaceholderPerValue() {
+        val query = TaskQuery(
+            statuses = setOf(TaskStatus.PENDING, TaskStatus.OVERDUE),
+            categoryIds = setOf(1L, 2L, 3L),
+            priorities = setOf(Priority.HIGH),
+            tagIds = setOf(4L, 5L, 6L, 7L)
+        )
+        val compiled = TaskQueryCompiler.compile(query)
+
+        assertTrue(compiled.sql.contains("tasks.status IN (?, ?)"))
+        assertTrue(compiled.sql.contains("tasks.categoryId IN (?, ?, ?)"))
+        assertTrue(compiled.sql.contains("tasks.priority IN (?)"))
+        assertTrue(compiled.sql.contains("task_tag_cross_ref.tagId IN (?, ?, ?, ?)"))
+        assertEquals(10, placeholderCount(compiled.sql))
+        assertEquals(10, compiled.argCount)
+    }
+
+    @Test
+    fun emptyQuery_hasNoPlaceholders() {
+        val compiled = TaskQueryCompiler.compile(TaskQuery())
+
+        assertEquals(0, placeholderCount(compiled.sql))
+        assertTrue(compiled.sql.contains("tasks.deletedAt IS NULL"))
+        assertTrue(compiled.sql.endsWith("ORDER BY " + TaskQuery.Sort.CREATED_DESC.orderBy))
+    }
+
+    @Test
+    fun bindArguments_followPlaceholderOrder() {
+        val query = TaskQuery(
+            statuses = setOf(TaskStatus.OVERDUE),
+            categoryIds = setOf(11L),
+            priorities = setOf(Priority.MEDIUM),
+            tagIds = setOf(21L, 22L),
+            dueFrom = 1_000L,
+            dueTo = 2_000L,
+            text = "reu proy"
+        )
+
+        assertEquals(
+            listOf(2L, 11L, 2L, 21L, 22L, 1_000L, 2_000L, "reu* proy*"),
+            bindingsOf(query)
+        )
+    }
+
+    @Test
+    fun includeArchived_repeatsArgumentsPerBranchWithoutText() {
+        val query = TaskQuery(
+            statuses = setOf(TaskStatus.COMPLETED),
+            tagIds = setOf(5L),
+            text = "informe",
+            includeArchived = true
+        )
+        val compiled = TaskQueryCompiler.compile(query)
+
+        assertTrue(compiled.sql.contains("UNION ALL"))
+        assertTrue(compiled.sql.contains("task_archive_tag.tagId IN (?)"))
+        // La rama del archivo no está en tasks_fts: no lleva el marcador de texto
+        assertEquals(5, placeholderCount(compiled.sql))
+        assertEquals(listOf(1L, 5L, "informe*", 1L, 5L), bindingsOf(query))
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecci.taskmanager.data.model
+
+import java.util.Locale
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Pruebas de conversión de horas de [RecurrenceRule].
+ */
+class RecurrenceRuleTest {
+
+    private lateinit var previousLocale: Locale
+
+    @Before
+    fun setUp() {
+        previousLocale = Locale.getDefault()
+    }
+
+    @After
+    fun tearDown() {
+        Locale.setDefault(previousLocale)
+    }
+
+    @Test
+    fun formatMinute_usesAsciiDigitsInAnyLocale() {
+        // El árabe y el persa formatean con dígitos propios por defecto
+        for (tag in listOf("ar-EG", "fa-IR", "es-CO")) {
+            Locale.setDefault(Locale.forLanguageTag(tag))
+
+            val formatted = RecurrenceRule.formatMinute(510)
+
+            assertEquals("08:30", formatted)
+            assertEquals(510, RecurrenceRule.parseMinute(formatted))
+        }
+    }
+}
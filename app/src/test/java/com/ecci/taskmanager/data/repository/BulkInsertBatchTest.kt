@@ -0,0 +1,68 @@
+package com.ecci.taskmanager.data.repository
+
+import com.ecci.taskmanager.data.model.Priority
+import com.ecci.taskmanager.data.model.Task
+import java.util.Date
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Pruebas de [BulkInsertBatch]: descarte de tareas inválidas y repetidas en un lote.
+ */
+class BulkInsertBatchTest {
+
+    /** Tareas de un mismo archivo, construidas en un bucle como al importar. */
+    private fun importedTasks(createdAt: Long) = List(3) { index ->
+        Task(
+            title = "Tarea $index",
+            description = "Descripción $index",
+            dueDate = Date(1_700_000_000_000L + index),
+            priority = Priority.HIGH,
+            createdAt = Date(createdAt + index)
+        )
+    }
+
+    @Test
+    fun twoIdenticalImports_countTheSecondAsDuplicates() {
+        // Cada importación crea sus tareas en otro instante
+        val batch = BulkInsertBatch.of(importedTasks(createdAt = 1_000) + importedTasks(createdAt = 2_000))
+
+        assertEquals(3, batch.tasks.size)
+        assertEquals(
+            BulkInsertProgress(total = 6, processed = 3, inserted = 0, invalid = 0, duplicates = 3),
+            batch.initialProgress
+        )
+    }
+
+    @Test
+    fun tasksDifferingInVisibleFields_areKept() {
+        val task = importedTasks(createdAt = 1_000).first()
+
+        val batch = BulkInsertBatch.of(
+            listOf(task, task.copy(priority = Priority.LOW), task.copy(dueDate = null), task.copy(categoryId = 4))
+        )
+
+        assertEquals(4, batch.tasks.size)
+        assertEquals(0, batch.initialProgress.duplicates)
+    }
+
+    @Test
+    fun explicitIds_areComparedById() {
+        val batch = BulkInsertBatch.of(
+            listOf(Task(id = 7, title = "A"), Task(id = 7, title = "B"), Task(id = 8, title = "A"))
+        )
+
+        assertEquals(listOf(7L, 8L), batch.tasks.map { it.id })
+        assertEquals(1, batch.initialProgress.duplicates)
+    }
+
+    @Test
+    fun invalidTasks_areCountedApart() {
+        val batch = BulkInsertBatch.of(listOf(Task(title = "  "), Task(title = "A"), Task(title = "A ")))
+
+        assertEquals(
+            BulkInsertProgress(total = 3, processed = 2, inserted = 0, invalid = 1, duplicates = 1),
+            batch.initialProgress
+        )
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecci.taskmanager.data.repository
+
+import com.ecci.taskmanager.data.model.RecurrenceRule
+import com.ecci.taskmanager.data.model.TaskOccurrence
+import com.ecci.taskmanager.data.repository.ScheduleFixtures.at
+import com.ecci.taskmanager.data.repository.ScheduleFixtures.days
+import com.ecci.taskmanager.data.repository.ScheduleFixtures.recurringTask
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+
+/**
+ * Pruebas de [RecurrenceSchedule]: días ISO, ventanas que cruzan semanas y bloques nocturnos.
+ *
+ * Las fechas son de enero de 2024 en UTC (ver [ScheduleFixtures]).
+ */
+class RecurrenceScheduleTest {
+
+    @get:Rule
+    val utc = UtcTimeZoneRule()
+
+    @Test
+    fun sunday_isIsoDaySeven() {
+        val schedule = RecurrenceSchedule.of(
+            listOf(
+                recurringTask(1, RecurrenceRule.dayBit(7), 600, 660),
+                recurringTask(2, RecurrenceRule.dayBit(1), 480, 540)
+            )
+        )
+
+        val occurrences = schedule.occurrences(days(1, 7)).toList()
+
+        assertEquals(
+            listOf(
+                TaskOccurrence(2, "Tarea 2", at(1, 8), at(1, 9)),
+                TaskOccurrence(1, "Tarea 1", at(7, 10), at(7, 11))
+            ),
+            occurrences
+        )
+    }
+
+    @Test
+    fun windowAcrossWeekBoundary_isOrderedByStart() {
+        val schedule = RecurrenceSchedule.of(
+            listOf(
+                recurringTask(1, RecurrenceRule.dayBit(1), 480, 540),
+                recurringTask(2, RecurrenceRule.dayBit(7), 600, 660),
+                recurringTask(3, RecurrenceRule.ALL_DAYS, 420, 450)
+            )
+        )
+
+        // Del sábado 6 al martes 9: termina una semana ISO y empieza la siguiente
+        val starts = schedule.occurrences(days(6, 9)).map { it.taskId to it.start }.toList()
+
+        assertEquals(
+            listOf(
+                3L to at(6, 7),
+                3L to at(7, 7),
+                2L to at(7, 10),
+                3L to at(8, 7),
+                1L to at(8, 8),
+                3L to at(9, 7)
+            ),
+            starts
+        )
+    }
+
+    @Test
+    fun emptyMask_isSkipped() {
+        val schedule = RecurrenceSchedule.of(listOf(recurringTask(1, 0, 480, 540)))
+
+        assertEquals(0, schedule.size)
+        assertTrue(schedule.occurrences(days(1, 7)).none())
+    }
+
+    @Test
+    fun startLaterThanEnd_endsNextDay() {
+        val schedule = RecurrenceSchedule.of(listOf(recurringTask(1, RecurrenceRule.dayBit(1), 1380, 60)))
+
+        val occurrences = schedule.occurrences(days(1, 7)).toList()
+
+        assertEquals(listOf(TaskOccurrence(1, "Tarea 1", at(1, 23), at(2, 1))), occurrences)
+    }
+
+    @Test
+    fun overnightBlockFromPreviousWeek_isIncluded() {
+        val schedule = RecurrenceSchedule.of(listOf(recurringTask(1, RecurrenceRule.dayBit(7), 1380, 60)))
+
+        // La ventana empieza el lunes 8; el bloque del domingo 7 sigue en curso
+        val occurrences = schedule.occurrences(days(8, 14)).toList()
+
+        assertEquals(
+            listOf(
+                TaskOccurrence(1, "Tarea 1", at(7, 23), at(8, 1)),
+                TaskOccurrence(1, "Tarea 1", at(14, 23), at(15, 1))
+            ),
+            occurrences
+        )
+    }
+
+    @Test
+    fun forEachOccurrence_matchesOccurrences() {
+        val schedule = RecurrenceSchedule.of(
+            listOf(
+                recurringTask(1, RecurrenceRule.dayBit(1) or RecurrenceRule.dayBit(3), 480, 540),
+                recurringTask(2, RecurrenceRule.dayBit(7), 1380, 60)
+            )
+        )
+        val window = days(1, 7)
+
+        val collected = mutableListOf<TaskOccurrence>()
+        schedule.forEachOccurrence(window) { index, start, end ->
+            collected += TaskOccurrence(schedule.taskId(index), schedule.title(index), start, end)
+        }
+
+        assertEquals(schedule.occurrences(window).toList(), collected)
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecci.taskmanager.data.repository
+
+import com.ecci.taskmanager.data.model.Task
+import java.util.Calendar
+import java.util.TimeZone
+import org.junit.rules.ExternalResource
+
+/**
+ * Datos comunes de las pruebas de horarios y agenda.
+ *
+ * Las fechas son de enero de 2024 en UTC; el 1 de enero de 2024 fue lunes.
+ * Las pruebas que las usan deben aplicar [UtcTimeZoneRule].
+ */
+object ScheduleFixtures {
+
+    private val UTC = TimeZone.getTimeZone("UTC")
+
+    /** Milisegundo del [day] de enero de 2024 a la hora indicada (UTC). */
+    fun at(day: Int, hour: Int = 0, minute: Int = 0): Long {
+        return Calendar.getInstance(UTC).apply {
+            clear()
+            set(2024, Calendar.JANUARY, day, hour, minute)
+        }.timeInMillis
+    }
+
+    /** Días del [firstDay] al [lastDay] de enero de 2024, completos. */
+    fun days(firstDay: Int, lastDay: Int) = DayRange(at(firstDay), at(lastDay + 1) - 1)
+
+    /** Tarea recurrente los días de [dayMask], de [start] a [end] (minutos del día). */
+    fun recurringTask(id: Long, dayMask: Int, start: Int, end: Int) = Task(
+        id = id,
+        title = "Tarea $id",
+        isRecurring = true,
+        recurringMask = dayMask,
+        startMinute = start,
+        endMinute = end
+    )
+}
+
+/**
+ * Usa UTC como zona horaria por defecto durante cada prueba, para que las horas
+ * esperadas no dependan del equipo, y restaura la anterior al terminar.
+ */
+class UtcTimeZoneRule : ExternalResource() {
+
+    private lateinit var previous: TimeZone
+
+    override fun before() {
+        previous = TimeZone.getDefault()
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"))
+    }
+
+    override fun after() {
+        TimeZone.setDefault(previous)
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecci.taskmanager.data.repository
+
+import com.ecci.taskmanager.data.model.RecurrenceRule
+import com.ecci.taskmanager.data.repository.ScheduleFixtures.recurringTask
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Pruebas de [ScheduleIndex]: cruces entre bloques, cambios de horario y exclusión de la tarea editada.
+ */
+class ScheduleIndexTest {
+
+    private val monday = RecurrenceRule.dayBit(1)
+    private val tuesday = RecurrenceRule.dayBit(2)
+    private val wednesday = RecurrenceRule.dayBit(3)
+    private val friday = RecurrenceRule.dayBit(5)
+
+    @Test
+    fun touchingBlocks_doNotConflict() {
+        val index = ScheduleIndex()
+        index.put(1, RecurrenceRule(monday, 480, 600))
+
+        // Uno empieza justo cuando termina el otro: [inicio, fin) no se cruzan
+        assertTrue(index.findConflicts(RecurrenceRule(monday, 600, 720)).isEmpty())
+        assertTrue(index.findConflicts(RecurrenceRule(monday, 360, 480)).isEmpty())
+        assertEquals(setOf(1L), index.findConflicts(RecurrenceRule(monday, 599, 720)))
+    }
+
+    @Test
+    fun overlapsOnSeveralWeekdays_areReportedOnce() {
+        val index = ScheduleIndex()
+        index.put(1, RecurrenceRule(monday, 480, 600))
+        index.put(2, RecurrenceRule(wednesday, 540, 660))
+        index.put(3, RecurrenceRule(friday, 480, 600))
+        index.put(4, RecurrenceRule(monday or wednesday, 500, 520))
+
+        val conflicts = index.findConflicts(RecurrenceRule(monday or wednesday, 510, 560))
+
+        assertEquals(setOf(1L, 2L, 4L), conflicts)
+    }
+
+    @Test
+    fun updatingBlock_replacesPreviousDaysAndHours() {
+        val index = ScheduleIndex()
+        index.put(1, RecurrenceRule(monday, 480, 600))
+
+        index.put(1, RecurrenceRule(tuesday, 720, 780))
+
+        assertTrue(index.findConflicts(RecurrenceRule(monday, 480, 600)).isEmpty())
+        assertTrue(index.findConflicts(RecurrenceRule(tuesday, 480, 600)).isEmpty())
+        assertEquals(setOf(1L), index.findConflicts(RecurrenceRule(tuesday, 750, 800)))
+    }
+
+    @Test
+    fun removingBlock_clearsItsConflicts() {
+        val index = ScheduleIndex()
+        index.put(1, RecurrenceRule(monday or friday, 480, 600))
+        index.put(2, RecurrenceRule(monday, 540, 660))
+
+        index.remove(1)
+
+        assertEquals(setOf(2L), index.findConflicts(RecurrenceRule(monday, 500, 560)))
+        assertTrue(index.findConflicts(RecurrenceRule(friday, 480, 600)).isEmpty())
+    }
+
+    @Test
+    fun editedTask_doesNotConflictWithItself() {
+        val index = ScheduleIndex()
+        index.put(1, RecurrenceRule(monday, 480, 600))
+        index.put(2, RecurrenceRule(monday, 540, 660))
+
+        val conflicts = index.findConflicts(RecurrenceRule(monday, 500, 560), excludeTaskId = 1)
+
+        assertEquals(setOf(2L), conflicts)
+    }
+
+    @Test
+    fun overnightBlock_conflictsWithNextDayMorning() {
+        val index = ScheduleIndex()
+        index.put(1, RecurrenceRule(monday, 1380, 60))
+
+        assertEquals(setOf(1L), index.findConflicts(RecurrenceRule(tuesday, 0, 30)))
+        assertTrue(index.findConflicts(RecurrenceRule(tuesday, 60, 120)).isEmpty())
+    }
+
+    @Test
+    fun sync_appliesOnlyChangedTasks() {
+        val index = ScheduleIndex()
+        assertTrue(index.sync(listOf(recurringTask(1, monday, 480, 600), recurringTask(2, tuesday, 480, 600))))
+        assertFalse(index.sync(listOf(recurringTask(1, monday, 480, 600), recurringTask(2, tuesday, 480, 600))))
+
+        // La tarea 1 cambia de horario y la 2 deja de estar en la lista
+        assertTrue(index.sync(listOf(recurringTask(1, monday, 700, 760))))
+
+        assertTrue(index.findConflicts(RecurrenceRule(monday, 480, 600)).isEmpty())
+        assertTrue(index.findConflicts(RecurrenceRule(tuesday, 480, 600)).isEmpty())
+        assertEquals(setOf(1L), index.findConflicts(RecurrenceRule(monday, 720, 730)))
+    }
+}
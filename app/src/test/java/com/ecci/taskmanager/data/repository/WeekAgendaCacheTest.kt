@@ -0,0 +1,91 @@
+package com.ecci.taskmanager.data.repository
+
+import com.ecci.taskmanager.data.model.RecurrenceRule
+import com.ecci.taskmanager.data.model.Task
+import com.ecci.taskmanager.data.repository.ScheduleFixtures.at
+import com.ecci.taskmanager.data.repository.ScheduleFixtures.days
+import java.util.Date
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Rule
+import org.junit.Test
+
+/**
+ * Pruebas de [WeekAgendaCache]: solo se reconstruyen los días a los que afecta un cambio.
+ *
+ * La semana probada es la del lunes 1 de enero de 2024, en UTC (ver [ScheduleFixtures]).
+ */
+class WeekAgendaCacheTest {
+
+    @get:Rule
+    val utc = UtcTimeZoneRule()
+
+    private val week get() = days(1, 7)
+
+    private fun datedTask(id: Long, day: Int, hour: Int) =
+        Task(id = id, title = "Tarea $id", dueDate = Date(at(day, hour)))
+
+    private fun recurringTask(id: Long, isoDay: Int) =
+        ScheduleFixtures.recurringTask(id, RecurrenceRule.dayBit(isoDay), 480, 540)
+
+    @Test
+    fun unchangedTasks_keepEveryDayList() {
+        val cache = WeekAgendaCache()
+        val tasks = listOf(datedTask(1, 1, 10), recurringTask(2, 5))
+
+        val first = cache.update(week, tasks)
+        val second = cache.update(week, tasks.map { it.copy() })
+
+        for (day in 0 until 7) {
+            assertSame(first.days[day], second.days[day])
+        }
+    }
+
+    @Test
+    fun movedTask_rebuildsOnlyItsOldAndNewDays() {
+        val cache = WeekAgendaCache()
+        val moved = datedTask(1, 1, 10)
+        val others = listOf(datedTask(2, 3, 10), recurringTask(3, 5))
+
+        val first = cache.update(week, others + moved)
+        // Del lunes al martes
+        val second = cache.update(week, others + moved.copy(dueDate = Date(at(2, 10))))
+
+        assertNotSame(first.days[0], second.days[0])
+        assertNotSame(first.days[1], second.days[1])
+        for (day in 2 until 7) {
+            assertSame(first.days[day], second.days[day])
+        }
+        assertEquals(emptyList<Long>(), second.days[0].map { it.taskId })
+        assertEquals(listOf(1L), second.days[1].map { it.taskId })
+    }
+
+    @Test
+    fun removedTask_rebuildsOnlyItsDay() {
+        val cache = WeekAgendaCache()
+        val kept = listOf(datedTask(1, 1, 10), recurringTask(3, 5))
+        val first = cache.update(week, kept + datedTask(2, 3, 10))
+
+        val second = cache.update(week, kept)
+
+        for (day in 0 until 7) {
+            if (day == 2) {
+                assertNotSame(first.days[day], second.days[day])
+            } else {
+                assertSame(first.days[day], second.days[day])
+            }
+        }
+        assertEquals(emptyList<Long>(), second.days[2].map { it.taskId })
+    }
+
+    @Test
+    fun entriesOfADay_areSortedByStart() {
+        val cache = WeekAgendaCache()
+
+        val agenda = cache.update(week, listOf(datedTask(1, 5, 12), recurringTask(2, 5), datedTask(3, 5, 9)))
+
+        // La tarea recurrente empieza a las 08:00
+        assertEquals(listOf(2L, 3L, 1L), agenda.days[4].map { it.taskId })
+    }
+}